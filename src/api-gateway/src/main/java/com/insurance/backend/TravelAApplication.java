@@ -2,14 +2,8 @@ package com.insurance.backend;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.boot.autoconfigure.domain.EntityScan;
-import org.springframework.context.annotation.ComponentScan;
-import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @SpringBootApplication
-@ComponentScan
-@EntityScan
-@EnableJpaRepositories
 public class TravelAApplication {
 
 	public static void main(String[] args) {
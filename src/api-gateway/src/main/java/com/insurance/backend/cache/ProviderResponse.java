@@ -0,0 +1,13 @@
+package com.insurance.backend.cache;
+
+import com.insurance.backend.model.InsuranceQuote;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A provider's quotes as cached in providerResponses, with the time they were fetched
+ */
+public record ProviderResponse(List<InsuranceQuote> quotes, Instant fetchedAt) implements Serializable {
+}
@@ -0,0 +1,113 @@
+package com.insurance.backend.cache;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.model.InsuranceQuote;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Stale-while-revalidate cache of provider API responses in the providerResponses cache.
+ *
+ * Younger than insurance.response-cache.soft-ttl a response is served as is. Between the soft and hard
+ * TTL it is still served immediately, and one background call refreshes it, so popular providers never
+ * make a request wait. Past the hard TTL, or on a miss, the caller waits for the provider. Concurrent
+ * callers share a single in-flight provider call either way.
+ *
+ * insurance.provider.cache   counter of lookups per providerId and result: fresh, stale or miss
+ */
+@Slf4j
+@Component
+public class ProviderResponseCache {
+    public static final String CACHE_NAME = "providerResponses";
+
+    private final CacheManager cacheManager;
+    private final InsuranceProviderConfig.ResponseCacheProperties properties;
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final Map<String, Mono<List<InsuranceQuote>>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ProviderResponseCache(CacheManager cacheManager, InsuranceProviderConfig providerConfig,
+                                 MeterRegistry registry) {
+        this(cacheManager, providerConfig.getResponseCache(), registry, Clock.systemUTC());
+    }
+
+    ProviderResponseCache(CacheManager cacheManager, InsuranceProviderConfig.ResponseCacheProperties properties,
+                          MeterRegistry registry, Clock clock) {
+        this.cacheManager = cacheManager;
+        this.properties = properties;
+        this.registry = registry;
+        this.clock = clock;
+    }
+
+    /**
+     * The provider's quotes, from the cache when it holds a response younger than the hard TTL,
+     * otherwise from the call
+     */
+    public Flux<InsuranceQuote> quotes(String providerId, Supplier<Flux<InsuranceQuote>> call) {
+        return Flux.defer(() -> {
+            ProviderResponse cached = cache().get(providerId, ProviderResponse.class);
+            Duration age = cached != null ? Duration.between(cached.fetchedAt(), clock.instant()) : null;
+
+            if (age == null || age.compareTo(properties.getHardTtl()) >= 0) {
+                counter(providerId, "miss").increment();
+                return fetch(providerId, call).flatMapIterable(quotes -> quotes);
+            }
+            if (age.compareTo(properties.getSoftTtl()) >= 0) {
+                counter(providerId, "stale").increment();
+                // Not tied to the caller: a cancelled request must not cancel the refresh
+                fetch(providerId, call).subscribe(quotes -> { },
+                        e -> log.warn("Refreshing provider {} responses failed: {}", providerId, e.toString()));
+            } else {
+                counter(providerId, "fresh").increment();
+            }
+            return Flux.fromIterable(cached.quotes());
+        });
+    }
+
+    /**
+     * The shared call for this provider, started if none is running. The client turns provider failures
+     * into no quotes, so an empty response keeps whatever is cached rather than replacing it.
+     */
+    private Mono<List<InsuranceQuote>> fetch(String providerId, Supplier<Flux<InsuranceQuote>> call) {
+        return inFlight.computeIfAbsent(providerId, id -> call.get()
+                .collectList()
+                .doOnNext(quotes -> {
+                    if (!quotes.isEmpty()) {
+                        cache().put(id, new ProviderResponse(List.copyOf(quotes), clock.instant()));
+                    } else {
+                        log.debug("Provider {} returned no quotes, keeping the cached response", id);
+                    }
+                })
+                .doFinally(signal -> inFlight.remove(id))
+                .cache());
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+
+    private Counter counter(String providerId, String result) {
+        return counters.computeIfAbsent(providerId + '|' + result, key -> Counter.builder("insurance.provider.cache")
+                .description("Provider response cache lookups")
+                .tag("providerId", providerId)
+                .tag("result", result)
+                .register(registry));
+    }
+}
@@ -0,0 +1,31 @@
+package com.insurance.backend.config;
+
+import com.insurance.backend.controller.AdmissionFilter;
+import com.insurance.backend.controller.ClientRateLimiter;
+import com.insurance.backend.controller.LoadShedder;
+import com.insurance.backend.metrics.ProviderCallMetrics;
+import com.insurance.backend.metrics.SchedulerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-client rate limiting and load shedding for the /api endpoints, see AdmissionFilter.
+ * Switched off with insurance.admission.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "insurance.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public AdmissionFilter admissionFilter(InsuranceProviderConfig providerConfig, SchedulerMetrics repositorySchedulerMetrics,
+                                           ProviderCallMetrics providerCallMetrics, MeterRegistry registry) {
+        InsuranceProviderConfig.AdmissionProperties admission = providerConfig.getAdmission();
+        ClientRateLimiter rateLimiter = new ClientRateLimiter(
+                admission.getRatePerSecond(), admission.getBurst(), admission.getMaxClients());
+        LoadShedder loadShedder = new LoadShedder(repositorySchedulerMetrics, providerCallMetrics,
+                admission.getMaxPendingRepositoryCalls(), admission.getMaxInFlightProviderCalls());
+        return new AdmissionFilter(rateLimiter, loadShedder, registry);
+    }
+}
@@ -1,11 +1,76 @@
 package com.insurance.backend.config;
 
+import lombok.extern.slf4j.Slf4j;
+import org.ehcache.config.Configuration;
+import org.ehcache.impl.config.persistence.CacheManagerPersistenceConfiguration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.ehcache.xml.XmlConfiguration;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
-import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileSystemUtils;
 
-@Configuration
+import javax.cache.Caching;
+import java.io.File;
+import java.io.IOException;
+
+@Slf4j
+@org.springframework.context.annotation.Configuration
 @EnableCaching
 public class CacheConfig {
-    // Ehcache configuration is loaded from ehcache.xml
-    // Additional cache configuration can be added here if needed
-}
\ No newline at end of file
+
+    /**
+     * JCache manager for ehcache.xml with the persistence directory from insurance.cache.directory.
+     * Replaces the one Boot's cache auto-configuration would build, since ehcache.xml can only take the
+     * directory from a system property. Closing the manager on shutdown flushes the disk tier; the next
+     * start reloads it. After a crash Ehcache finds the directory unclean and starts those caches empty.
+     */
+    @Bean(destroyMethod = "close")
+    public javax.cache.CacheManager jCacheCacheManager(CacheProperties cacheProperties,
+                                                        InsuranceProviderConfig config) throws IOException {
+        Resource location = cacheProperties.getJcache().getConfig() != null
+                ? cacheProperties.resolveConfigLocation(cacheProperties.getJcache().getConfig())
+                : new ClassPathResource("ehcache.xml");
+        File directory = config.getCache().getDirectory().toFile();
+        Configuration configuration = new XmlConfiguration(location.getURL(), getClass().getClassLoader())
+                .derive()
+                .withService(new CacheManagerPersistenceConfiguration(directory))
+                .build();
+        EhcacheCachingProvider provider =
+                (EhcacheCachingProvider) Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        // One manager per directory: Ehcache locks it for as long as the manager is open
+        try {
+            return provider.getCacheManager(directory.toURI(), configuration);
+        } catch (RuntimeException e) {
+            if (!persistedTypeMismatch(e)) {
+                throw e;
+            }
+            // A deploy changed a cache's key or value type; cached data is disposable, so start those caches empty
+            log.warn("Persisted caches in {} no longer match ehcache.xml, discarding them", directory, e);
+            FileSystemUtils.deleteRecursively(directory.toPath());
+            return provider.getCacheManager(directory.toURI(), configuration);
+        }
+    }
+
+    private static boolean persistedTypeMismatch(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof IllegalArgumentException && String.valueOf(cause.getMessage()).startsWith("Persisted ")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Hand Spring's JCache manager to Hibernate, so its second-level cache regions come from the same
+     * ehcache.xml and one Ehcache instance owns the off-heap memory and persistence directory
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManager(javax.cache.CacheManager cacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, cacheManager);
+    }
+}
@@ -0,0 +1,76 @@
+package com.insurance.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CBOR responses alongside JSON, for endpoints that list application/cbor in produces and clients that
+ * send Accept: application/cbor.
+ *
+ * The mapper is built from the same Spring Boot Jackson settings as the JSON codec, so both representations
+ * carry the same fields, with dates as ISO strings. Responses above server.compression.min-response-size
+ * are gzipped by the server in either representation.
+ */
+@Configuration
+public class CodecConfig implements WebFluxConfigurer {
+
+    private final ObjectMapper cborMapper;
+
+    public CodecConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        // Boot hands each injection point its own builder, so switching its factory affects only this mapper
+        this.cborMapper = objectMapperBuilder.factory(new CBORFactory()).build();
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.customCodecs().register(new CborEncoder(cborMapper));
+    }
+
+    /**
+     * Spring's CBOR encoder only encodes single values, which is all RSocket needs. This one also takes a
+     * Mono, and a Flux as one CBOR array, and is never picked unless CBOR was asked for by name, so
+     * Accept: *&#47;* and error responses stay JSON.
+     */
+    static class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public boolean canEncode(ResolvableType elementType, @Nullable MimeType mimeType) {
+            return mimeType != null && MediaType.APPLICATION_CBOR.isCompatibleWith(mimeType)
+                    && super.canEncode(elementType, mimeType);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, @Nullable MimeType mimeType,
+                                       @Nullable Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            ResolvableType listType = ResolvableType.forClassWithGenerics(List.class, elementType);
+            return Flux.from(inputStream).collectList()
+                    .map(values -> encodeValue(values, bufferFactory, listType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
@@ -1,9 +1,12 @@
 package com.insurance.backend.config;
 
+import com.insurance.backend.controller.SlowConsumerPolicy;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -12,6 +15,15 @@ import java.util.Map;
 @ConfigurationProperties(prefix = "insurance")
 public class InsuranceProviderConfig {
     private Map<String, ProviderProperties> providers;
+    private CircuitBreakerProperties circuitBreaker = new CircuitBreakerProperties();
+    private IngestionProperties ingestion = new IngestionProperties();
+    private ArchiveProperties archive = new ArchiveProperties();
+    private CachePersistenceProperties cache = new CachePersistenceProperties();
+    private ResponseCacheProperties responseCache = new ResponseCacheProperties();
+    private ExpiryProperties expiry = new ExpiryProperties();
+    private SchedulerLockProperties schedulerLock = new SchedulerLockProperties();
+    private AdmissionProperties admission = new AdmissionProperties();
+    private StreamProperties stream = new StreamProperties();
 
 
     @Data
@@ -20,5 +32,86 @@ public class InsuranceProviderConfig {
         private boolean fetchFromDb;
         private String apiUrl;
         private String apiKey;
+        private Duration timeout = Duration.ofSeconds(5);
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class CircuitBreakerProperties {
+        // Consecutive failed calls that open a provider's circuit
+        private int failureThreshold = 5;
+        // How long calls are rejected before a trial call is let through
+        private Duration openDuration = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class IngestionProperties {
+        // Quotes written per transaction by bulk ingestion; JDBC batches within it follow hibernate.jdbc.batch_size
+        private int batchSize = 500;
+    }
+
+    @Data
+    public static class ArchiveProperties {
+        private boolean enabled = true;
+        // Expired and rejected quotes untouched for longer than this move to insurance_quotes_archive
+        private Duration horizon = Duration.ofDays(30);
+        // Quotes moved per transaction
+        private int batchSize = 1000;
+        // How often each instance's trigger fires; one instance runs the job per interval
+        private Duration interval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class CachePersistenceProperties {
+        // Disk tier of the Ehcache caches; kept across restarts, and locked, so give each instance its own
+        private Path directory = Path.of(System.getProperty("java.io.tmpdir"), "ehcache");
+    }
+
+    @Data
+    public static class ResponseCacheProperties {
+        // Older provider responses are still served, but trigger a background refresh
+        private Duration softTtl = Duration.ofMinutes(5);
+        // Older provider responses are never served; the caller waits for the provider
+        private Duration hardTtl = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class ExpiryProperties {
+        // Quotes expired per UPDATE when many fall due on the same tick
+        private int batchSize = 500;
+        // How often each instance's trigger fires the reconciliation scan; one instance runs it per interval
+        private Duration reconcileInterval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class SchedulerLockProperties {
+        // Lease on a cluster-wide job while it runs; another instance takes over this long after the holder dies
+        private Duration lockAtMostFor = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class AdmissionProperties {
+        private boolean enabled = true;
+        // Sustained requests per second allowed to each client, identified by principal or else remote address
+        private double ratePerSecond = 100;
+        // Requests a client that has been idle may send at once
+        private int burst = 200;
+        // Client buckets kept at once; beyond this the least valuable are evicted
+        private int maxClients = 100_000;
+        // Every request gets 503 while more repository calls than this are queued or running
+        private long maxPendingRepositoryCalls = 2000;
+        // Every request gets 503 while more provider calls than this are under way
+        private int maxInFlightProviderCalls = 500;
+    }
+
+    @Data
+    public static class StreamProperties {
+        // Quotes held per SSE connection while its client is not reading
+        private int bufferSize = 256;
+        // What a connection does once its buffer is full
+        private SlowConsumerPolicy slowConsumerPolicy = SlowConsumerPolicy.COALESCE;
+        // Comment event sent while no quote is waiting, so proxies keep the connection open
+        private Duration heartbeat = Duration.ofSeconds(15);
+        // Connections whose client reads nothing for this long while quotes wait are closed
+        private Duration idleTimeout = Duration.ofSeconds(60);
+    }
+}
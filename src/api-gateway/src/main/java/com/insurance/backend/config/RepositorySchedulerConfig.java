@@ -0,0 +1,67 @@
+package com.insurance.backend.config;
+
+import com.insurance.backend.metrics.SchedulerMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scheduler that blocking JPA repository calls are moved onto, chosen with insurance.repository.scheduler.
+ *
+ * virtual (default) runs each call on its own virtual thread, so the number of calls in flight is limited
+ * by the connection pool rather than by threads. bounded-elastic is Reactor's shared pool, capped at
+ * ten threads per core.
+ */
+@Configuration
+public class RepositorySchedulerConfig {
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "insurance.repository", name = "scheduler", havingValue = "virtual", matchIfMissing = true)
+    static class VirtualThreads {
+        private final AtomicInteger running = new AtomicInteger();
+
+        @Bean(destroyMethod = "dispose")
+        public Scheduler repositoryScheduler() {
+            ThreadFactory virtualThreads = Thread.ofVirtual().name("repository-", 0).factory();
+            ExecutorService executor = Executors.newThreadPerTaskExecutor(task -> virtualThreads.newThread(() -> {
+                running.incrementAndGet();
+                try {
+                    task.run();
+                } finally {
+                    running.decrementAndGet();
+                }
+            }));
+            return Schedulers.fromExecutorService(executor, "repository-virtual");
+        }
+
+        @Bean
+        public SchedulerMetrics repositorySchedulerMetrics(Scheduler repositoryScheduler) {
+            // Every task gets its own thread, so nothing ever waits in a queue
+            return new SchedulerMetrics("virtual", repositoryScheduler, running::get);
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "insurance.repository", name = "scheduler", havingValue = "bounded-elastic")
+    static class BoundedElastic {
+
+        // The shared scheduler outlives the context, so it must not be disposed with it
+        @Bean(destroyMethod = "")
+        public Scheduler repositoryScheduler() {
+            return Schedulers.boundedElastic();
+        }
+
+        @Bean
+        public SchedulerMetrics repositorySchedulerMetrics(Scheduler repositoryScheduler) {
+            return new SchedulerMetrics("bounded-elastic", repositoryScheduler,
+                    () -> SchedulerMetrics.busyWorkers(repositoryScheduler));
+        }
+    }
+}
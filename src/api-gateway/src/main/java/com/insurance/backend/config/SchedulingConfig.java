@@ -0,0 +1,10 @@
+package com.insurance.backend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+    // Runs the @Scheduled background jobs
+}
@@ -0,0 +1,87 @@
+package com.insurance.backend.controller;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of the /api endpoints.
+ *
+ * While the gateway is overloaded every request gets 503; otherwise each client is held to its token
+ * bucket and gets 429 beyond it. Both answer with Retry-After and an empty body before any routing,
+ * decoding or repository work happens. Rejections are counted in insurance.admission.rejected, tagged
+ * by reason.
+ *
+ * A client is its authenticated principal when there is one, otherwise its remote address. Nothing a
+ * caller can freely choose, such as an unchecked API key header, picks the bucket, or rotating it would
+ * buy a fresh burst per request. Behind a proxy, set server.forward-headers-strategy so the remote
+ * address is the client's rather than the proxy's.
+ */
+public class AdmissionFilter implements WebFilter {
+    private static final String API_PATH = "/api/";
+
+    private final ClientRateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final Counter rateLimited;
+    private final Counter overloaded;
+
+    public AdmissionFilter(ClientRateLimiter rateLimiter, LoadShedder loadShedder, MeterRegistry registry) {
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.rateLimited = rejections(registry, "rate_limited");
+        this.overloaded = rejections(registry, "overloaded");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!exchange.getRequest().getPath().value().startsWith(API_PATH)) {
+            return chain.filter(exchange);
+        }
+        // Checked first so that shed requests don't also spend the client's tokens
+        if (loadShedder.isOverloaded()) {
+            overloaded.increment();
+            return reject(exchange, HttpStatus.SERVICE_UNAVAILABLE, 1);
+        }
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty(remoteAddress(exchange))
+                .flatMap(client -> {
+                    long waitNanos = rateLimiter.tryAcquire(client);
+                    if (waitNanos > 0) {
+                        rateLimited.increment();
+                        return reject(exchange, HttpStatus.TOO_MANY_REQUESTS,
+                                (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+                    }
+                    return chain.filter(exchange);
+                });
+    }
+
+    private static String remoteAddress(ServerWebExchange exchange) {
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        return remote != null ? remote.getHostString() : "unknown";
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, long retryAfterSeconds) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return response.setComplete();
+    }
+
+    private static Counter rejections(MeterRegistry registry, String reason) {
+        return Counter.builder("insurance.admission.rejected")
+                .description("Requests turned away before reaching a controller")
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
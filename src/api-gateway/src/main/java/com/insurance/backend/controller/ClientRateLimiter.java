@@ -0,0 +1,68 @@
+package com.insurance.backend.controller;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per client: up to burst requests at once, refilled at ratePerSecond.
+ *
+ * Each bucket is a single AtomicLong holding the time at which it will next be full (the generic cell
+ * rate algorithm), so taking a token is one compare-and-set and needs no refill thread or lock. A bucket
+ * untouched for as long as a full refill takes holds no information and expires. At most maxClients
+ * buckets are kept; beyond that the cache evicts in constant time, favouring clients seen often, so a
+ * stream of one-off client keys can neither grow the map nor push out the busy clients' buckets.
+ */
+public class ClientRateLimiter {
+    private final long emissionNanos;
+    // How far ahead of now a bucket's full time may run before it is empty
+    private final long burstNanos;
+    private final LongSupplier nanoTime;
+    private final Cache<String, AtomicLong> buckets;
+
+    public ClientRateLimiter(double ratePerSecond, int burst, int maxClients) {
+        this(ratePerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(double ratePerSecond, int burst, int maxClients, LongSupplier nanoTime) {
+        this.emissionNanos = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        this.burstNanos = emissionNanos * burst;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(burstNanos))
+                .ticker(nanoTime::getAsLong)
+                // Eviction work is small and bounded; doing it inline keeps it off the common pool
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Take a token from the client's bucket
+     *
+     * @return 0 when the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String client) {
+        long now = nanoTime.getAsLong();
+        AtomicLong bucket = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + emissionNanos;
+            if (next - now > burstNanos) {
+                return next - now - burstNanos;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long trackedClients() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -3,8 +3,14 @@ package com.insurance.backend.controller;
 import com.insurance.backend.config.InsuranceProviderConfig;
 import com.insurance.backend.model.InsuranceQuote;
 import com.insurance.backend.service.InsuranceQuoteService;
+import com.insurance.backend.service.QuoteIngestion;
+import com.insurance.backend.service.QuotePage;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -19,23 +25,53 @@ import java.util.Map;
 public class InsuranceQuoteController {
 
     private final InsuranceQuoteService quoteService;
+    private final QuoteEventStream quoteEventStream;
 
     @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Flux<InsuranceQuote> getAllQuotes() {
-        return quoteService.getQuotesFromAllProviders();
+    public Flux<ServerSentEvent<InsuranceQuote>> getAllQuotes() {
+        return quoteEventStream.stream(quoteService.getQuotesFromAllProviders());
     }
 
-    @GetMapping(value = "/{providerId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @GetMapping(value = "/{providerId}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public Mono<InsuranceQuote> getQuoteFromProvider(@PathVariable String providerId) {
         return quoteService.getQuoteFromProvider(providerId);
     }
 
     @PostMapping(value = "/{quoteId}/select")
-    public Mono<InsuranceQuote> selectQuote(@PathVariable Long quoteId) {
-        return quoteService.selectQuote(quoteId);
+    public Mono<ResponseEntity<ProblemDetail>> selectQuote(@PathVariable Long quoteId) {
+        return quoteService.selectQuote(quoteId).map(selection -> switch (selection) {
+            case SELECTED -> ResponseEntity.noContent().build();
+            case NOT_FOUND -> ResponseEntity.of(ProblemDetail.forStatusAndDetail(HttpStatus.NOT_FOUND,
+                    "Quote " + quoteId + " does not exist")).build();
+            case NOT_PENDING -> ResponseEntity.of(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                    "Quote " + quoteId + " is no longer pending")).build();
+        });
     }
 
-    @GetMapping("/statistics")
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<QuoteIngestion> ingestQuotes(@RequestBody Flux<InsuranceQuote> quotes) {
+        return quoteService.ingestQuotes(quotes);
+    }
+
+    @GetMapping(value = "/page", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public Mono<QuotePage> getQuotePage(@RequestParam(required = false) Long after,
+                                        @RequestParam(required = false) String providerId,
+                                        @RequestParam(required = false) InsuranceQuote.QuoteStatus status,
+                                        @RequestParam(defaultValue = "50") int size) {
+        return quoteService.getQuotePage(after, providerId, status, size);
+    }
+
+    /**
+     * Quotes archived by QuoteArchivalJob, read from the archive table only when asked for
+     */
+    @GetMapping(value = "/archive", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public Mono<QuotePage> getArchivedQuotePage(@RequestParam(required = false) Long after,
+                                                @RequestParam(required = false) String providerId,
+                                                @RequestParam(defaultValue = "50") int size) {
+        return quoteService.getArchivedQuotePage(after, providerId, size);
+    }
+
+    @GetMapping(value = "/statistics", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public Mono<Map<String, Object>> getQuoteStatistics() {
         return quoteService.getQuoteStatistics();
     }
@@ -0,0 +1,52 @@
+package com.insurance.backend.controller;
+
+import com.insurance.backend.metrics.ProviderCallMetrics;
+import com.insurance.backend.metrics.SchedulerMetrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Decides whether the gateway is too busy to take more requests: too many repository calls queued or
+ * running, or too many provider calls under way.
+ *
+ * Scanning the scheduler's workers is not free, so the verdict is recomputed at most every 50ms and
+ * every other request reads the cached answer.
+ */
+public class LoadShedder {
+    private static final long REFRESH_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final SchedulerMetrics schedulerMetrics;
+    private final ProviderCallMetrics providerCallMetrics;
+    private final long maxPendingRepositoryCalls;
+    private final int maxInFlightProviderCalls;
+    private final LongSupplier nanoTime;
+    private volatile long checkedAt;
+    private volatile boolean overloaded;
+
+    public LoadShedder(SchedulerMetrics schedulerMetrics, ProviderCallMetrics providerCallMetrics,
+                       long maxPendingRepositoryCalls, int maxInFlightProviderCalls) {
+        this(schedulerMetrics, providerCallMetrics, maxPendingRepositoryCalls, maxInFlightProviderCalls, System::nanoTime);
+    }
+
+    LoadShedder(SchedulerMetrics schedulerMetrics, ProviderCallMetrics providerCallMetrics,
+                long maxPendingRepositoryCalls, int maxInFlightProviderCalls, LongSupplier nanoTime) {
+        this.schedulerMetrics = schedulerMetrics;
+        this.providerCallMetrics = providerCallMetrics;
+        this.maxPendingRepositoryCalls = maxPendingRepositoryCalls;
+        this.maxInFlightProviderCalls = maxInFlightProviderCalls;
+        this.nanoTime = nanoTime;
+        this.checkedAt = nanoTime.getAsLong() - REFRESH_NANOS;
+    }
+
+    public boolean isOverloaded() {
+        long now = nanoTime.getAsLong();
+        if (now - checkedAt >= REFRESH_NANOS) {
+            // Racing refreshes compute the same answer, so no lock
+            checkedAt = now;
+            overloaded = schedulerMetrics.pendingCalls() > maxPendingRepositoryCalls
+                    || providerCallMetrics.getInFlightCalls() > maxInFlightProviderCalls;
+        }
+        return overloaded;
+    }
+}
@@ -0,0 +1,197 @@
+package com.insurance.backend.controller;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.metrics.QuoteStreamMetrics;
+import com.insurance.backend.model.InsuranceQuote;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns a quote Flux into server-sent events for one connection without letting a slow client hold
+ * unbounded memory or provider subscriptions.
+ *
+ * The source is drained as fast as it emits into a buffer of at most insurance.stream.buffer-size quotes,
+ * and quotes leave the buffer only as the client's connection asks for them. When the buffer is full the
+ * slow-consumer policy drops, coalesces or disconnects. A heartbeat comment goes out whenever nothing
+ * else is waiting, and a client that has read nothing for insurance.stream.idle-timeout while quotes
+ * wait is disconnected. Closing the stream cancels the source.
+ */
+@Component
+public class QuoteEventStream {
+    private static final ServerSentEvent<InsuranceQuote> HEARTBEAT =
+            ServerSentEvent.<InsuranceQuote>builder().comment("heartbeat").build();
+
+    private final InsuranceProviderConfig.StreamProperties properties;
+    private final QuoteStreamMetrics metrics;
+    private final Scheduler timer;
+
+    @Autowired
+    public QuoteEventStream(InsuranceProviderConfig providerConfig, QuoteStreamMetrics metrics) {
+        this(providerConfig.getStream(), metrics, Schedulers.parallel());
+    }
+
+    QuoteEventStream(InsuranceProviderConfig.StreamProperties properties, QuoteStreamMetrics metrics, Scheduler timer) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.timer = timer;
+    }
+
+    public Flux<ServerSentEvent<InsuranceQuote>> stream(Flux<InsuranceQuote> quotes) {
+        return Flux.create(sink -> new Connection(sink).start(quotes));
+    }
+
+    private final class Connection {
+        private final FluxSink<ServerSentEvent<InsuranceQuote>> sink;
+        private final ArrayDeque<InsuranceQuote> buffer = new ArrayDeque<>();
+        private boolean sourceDone;
+        private Throwable sourceError;
+        private boolean closed;
+        // Timer nanos since quotes have been waiting with no demand from the client, or -1
+        private long stalledSince = -1;
+
+        Connection(FluxSink<ServerSentEvent<InsuranceQuote>> sink) {
+            this.sink = sink;
+        }
+
+        void start(Flux<InsuranceQuote> quotes) {
+            metrics.streamOpened();
+            Disposable.Composite resources = Disposables.composite();
+            sink.onRequest(requested -> drain());
+            sink.onDispose(() -> {
+                resources.dispose();
+                close();
+                metrics.streamClosed();
+            });
+            resources.add(Flux.interval(properties.getHeartbeat(), properties.getHeartbeat(), timer)
+                    .subscribe(tick -> heartbeat()));
+            resources.add(quotes.subscribe(this::offer, this::fail, this::complete));
+        }
+
+        synchronized void offer(InsuranceQuote quote) {
+            if (closed) {
+                return;
+            }
+            if (buffer.size() >= properties.getBufferSize()) {
+                switch (properties.getSlowConsumerPolicy()) {
+                    case DROP -> {
+                        metrics.slowConsumer(QuoteStreamMetrics.DROPPED);
+                        return;
+                    }
+                    case COALESCE -> {
+                        int removed = removeWaiting(coalesceKey(quote));
+                        if (removed > 0) {
+                            metrics.slowConsumer(QuoteStreamMetrics.COALESCED);
+                        } else {
+                            buffer.pollFirst();
+                            metrics.slowConsumer(QuoteStreamMetrics.DROPPED);
+                            removed = 1;
+                        }
+                        metrics.buffered(-removed);
+                    }
+                    case DISCONNECT -> {
+                        metrics.slowConsumer(QuoteStreamMetrics.DISCONNECTED);
+                        disconnect();
+                        return;
+                    }
+                }
+            }
+            buffer.addLast(quote);
+            metrics.buffered(1);
+            drain();
+        }
+
+        /**
+         * Remove every waiting copy of the quote with this key; quotes that arrived while the buffer had room
+         * are not coalesced, so there can be more than one. Returns how many were removed.
+         */
+        private int removeWaiting(Object key) {
+            if (key == null) {
+                return 0;
+            }
+            int removed = 0;
+            for (Iterator<InsuranceQuote> waiting = buffer.iterator(); waiting.hasNext(); ) {
+                if (key.equals(coalesceKey(waiting.next()))) {
+                    waiting.remove();
+                    removed++;
+                }
+            }
+            return removed;
+        }
+
+        synchronized void fail(Throwable error) {
+            sourceDone = true;
+            sourceError = error;
+            drain();
+        }
+
+        synchronized void complete() {
+            sourceDone = true;
+            drain();
+        }
+
+        synchronized void drain() {
+            if (closed) {
+                return;
+            }
+            while (!buffer.isEmpty() && sink.requestedFromDownstream() > 0) {
+                stalledSince = -1;
+                metrics.buffered(-1);
+                sink.next(ServerSentEvent.builder(buffer.pollFirst()).build());
+            }
+            if (!buffer.isEmpty()) {
+                if (stalledSince < 0) {
+                    stalledSince = timer.now(TimeUnit.NANOSECONDS);
+                }
+            } else if (sourceDone) {
+                closed = true;
+                if (sourceError != null) {
+                    sink.error(sourceError);
+                } else {
+                    sink.complete();
+                }
+            }
+        }
+
+        synchronized void heartbeat() {
+            if (closed) {
+                return;
+            }
+            if (buffer.isEmpty()) {
+                // A client that is not reading doesn't need one, and it must not be queued
+                if (sink.requestedFromDownstream() > 0) {
+                    sink.next(HEARTBEAT);
+                }
+            } else if (timer.now(TimeUnit.NANOSECONDS) - stalledSince >= properties.getIdleTimeout().toNanos()) {
+                metrics.slowConsumer(QuoteStreamMetrics.TIMED_OUT);
+                disconnect();
+            }
+        }
+
+        // The same quote's identity, or null when it has neither id nor reference and cannot be coalesced
+        private static Object coalesceKey(InsuranceQuote quote) {
+            return quote.getId() != null ? quote.getId() : quote.getQuoteReference();
+        }
+
+        private void disconnect() {
+            close();
+            sink.complete();
+        }
+
+        private synchronized void close() {
+            closed = true;
+            metrics.buffered(-buffer.size());
+            buffer.clear();
+        }
+    }
+}
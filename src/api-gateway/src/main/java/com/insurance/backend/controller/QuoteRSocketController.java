@@ -0,0 +1,40 @@
+package com.insurance.backend.controller;
+
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.service.InsuranceQuoteService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Quote routes for internal consumers over RSocket, on spring.rsocket.server.port.
+ *
+ * Payloads are CBOR unless the requester asks for JSON in its data MIME type. A request-stream is
+ * flow-controlled end to end: the service Flux is only asked for as many quotes as the consumer has
+ * requested with REQUEST_N frames, so a slow consumer slows its own stream instead of filling buffers.
+ */
+@Controller
+@RequiredArgsConstructor
+public class QuoteRSocketController {
+
+    private final InsuranceQuoteService quoteService;
+
+    /**
+     * Request-stream of the quotes from every enabled provider
+     */
+    @MessageMapping("quotes")
+    public Flux<InsuranceQuote> streamQuotes() {
+        return quoteService.getQuotesFromAllProviders();
+    }
+
+    /**
+     * Request-response with one provider's quote
+     */
+    @MessageMapping("quotes.{providerId}")
+    public Mono<InsuranceQuote> getQuoteFromProvider(@DestinationVariable String providerId) {
+        return quoteService.getQuoteFromProvider(providerId);
+    }
+}
@@ -0,0 +1,14 @@
+package com.insurance.backend.controller;
+
+/**
+ * What a quote stream does when its client reads slower than quotes arrive and the connection's buffer fills
+ */
+public enum SlowConsumerPolicy {
+    // Discard quotes that arrive while the buffer is full
+    DROP,
+    // Replace the waiting copy of the same quote (by id, else quoteReference) with the newer one,
+    // otherwise make room by discarding the oldest waiting quote
+    COALESCE,
+    // Close the stream
+    DISCONNECT
+}
@@ -0,0 +1,11 @@
+package com.insurance.backend.metrics;
+
+/**
+ * A provider call was rejected because the provider's circuit is open
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    public CircuitOpenException(String providerId) {
+        super("Circuit open for provider " + providerId);
+    }
+}
@@ -0,0 +1,135 @@
+package com.insurance.backend.metrics;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Latency, outcome and circuit-breaker metrics for provider calls, tagged by providerId.
+ *
+ * insurance.provider.requests   timer with percentile histogram, per outcome
+ * insurance.provider.outcomes   counter of success, timeout, error, cancelled and circuit_open
+ * insurance.provider.circuit    gauge of the circuit state: 0 closed, 1 half-open, 2 open
+ * insurance.provider.in_flight  gauge of calls under way across all providers
+ */
+@Component
+public class ProviderCallMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String TIMEOUT = "timeout";
+    public static final String ERROR = "error";
+    public static final String CANCELLED = "cancelled";
+    public static final String CIRCUIT_OPEN = "circuit_open";
+
+    private final MeterRegistry registry;
+    private final InsuranceProviderConfig.CircuitBreakerProperties circuitBreakerProperties;
+    private final Clock clock;
+    private final Map<String, ProviderCircuitBreaker> breakers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    @Autowired
+    public ProviderCallMetrics(MeterRegistry registry, InsuranceProviderConfig providerConfig) {
+        this(registry, providerConfig.getCircuitBreaker(), Clock.systemUTC());
+    }
+
+    ProviderCallMetrics(MeterRegistry registry, InsuranceProviderConfig.CircuitBreakerProperties circuitBreakerProperties,
+                        Clock clock) {
+        this.registry = registry;
+        this.circuitBreakerProperties = circuitBreakerProperties;
+        this.clock = clock;
+        Gauge.builder("insurance.provider.in_flight", inFlight, AtomicInteger::get)
+                .description("Provider calls under way")
+                .register(registry);
+    }
+
+    /**
+     * Time a provider call and count its outcome. When the provider's circuit is open the call is not
+     * subscribed at all and the returned Flux fails with CircuitOpenException.
+     */
+    public <T> Flux<T> record(String providerId, Flux<T> call) {
+        return Flux.defer(() -> {
+            ProviderCircuitBreaker breaker = breaker(providerId);
+            if (!breaker.tryAcquire()) {
+                counter(providerId, CIRCUIT_OPEN).increment();
+                return Flux.error(new CircuitOpenException(providerId));
+            }
+
+            Timer.Sample sample = Timer.start(registry);
+            AtomicBoolean emitted = new AtomicBoolean();
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            return call
+                    .doOnSubscribe(subscription -> inFlight.incrementAndGet())
+                    .doOnNext(value -> emitted.set(true))
+                    .doOnError(failure::set)
+                    .doFinally(signal -> {
+                        String outcome = switch (signal) {
+                            case ON_COMPLETE -> SUCCESS;
+                            case ON_ERROR -> failure.get() instanceof TimeoutException ? TIMEOUT : ERROR;
+                            // Taking the first quote cancels the rest, which still counts as an answer
+                            default -> emitted.get() ? SUCCESS : CANCELLED;
+                        };
+                        switch (outcome) {
+                            case SUCCESS -> breaker.onSuccess();
+                            case CANCELLED -> breaker.onIgnored();
+                            default -> breaker.onFailure();
+                        }
+                        inFlight.decrementAndGet();
+                        sample.stop(timer(providerId, outcome));
+                        counter(providerId, outcome).increment();
+                    });
+        });
+    }
+
+    public int getInFlightCalls() {
+        return inFlight.get();
+    }
+
+    public ProviderCircuitBreaker.State getCircuitState(String providerId) {
+        return breaker(providerId).getState();
+    }
+
+    private ProviderCircuitBreaker breaker(String providerId) {
+        return breakers.computeIfAbsent(providerId, id -> {
+            ProviderCircuitBreaker breaker = new ProviderCircuitBreaker(
+                    circuitBreakerProperties.getFailureThreshold(), circuitBreakerProperties.getOpenDuration(), clock);
+            Gauge.builder("insurance.provider.circuit", breaker, b -> b.getState().ordinal())
+                    .description("Provider circuit state: 0 closed, 1 half-open, 2 open")
+                    .tag("providerId", id)
+                    .register(registry);
+            return breaker;
+        });
+    }
+
+    private Timer timer(String providerId, String outcome) {
+        return timers.computeIfAbsent(providerId + '|' + outcome, key -> Timer.builder("insurance.provider.requests")
+                .description("Provider quote call latency")
+                .tag("providerId", providerId)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry));
+    }
+
+    private Counter counter(String providerId, String outcome) {
+        return counters.computeIfAbsent(providerId + '|' + outcome, key -> Counter.builder("insurance.provider.outcomes")
+                .description("Provider quote calls by outcome")
+                .tag("providerId", providerId)
+                .tag("outcome", outcome)
+                .register(registry));
+    }
+}
@@ -0,0 +1,70 @@
+package com.insurance.backend.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks clients subscribed to the quotes event stream
+ *
+ * insurance.quotes.stream.subscribers    gauge of open streams
+ * insurance.quotes.stream.buffered       gauge of quotes waiting for slow clients, across all streams
+ * insurance.quotes.stream.slow_consumer  counter of quotes dropped or coalesced and streams disconnected or timed out
+ */
+@Component
+public class QuoteStreamMetrics {
+
+    public static final String DROPPED = "dropped";
+    public static final String COALESCED = "coalesced";
+    public static final String DISCONNECTED = "disconnected";
+    public static final String TIMED_OUT = "timed_out";
+
+    private final MeterRegistry registry;
+    private final AtomicInteger activeSubscribers = new AtomicInteger();
+    private final AtomicLong buffered = new AtomicLong();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public QuoteStreamMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder("insurance.quotes.stream.subscribers", activeSubscribers, AtomicInteger::get)
+                .description("Active SSE subscribers to the quotes stream")
+                .register(registry);
+        Gauge.builder("insurance.quotes.stream.buffered", buffered, AtomicLong::get)
+                .description("Quotes waiting to be sent to SSE subscribers")
+                .register(registry);
+    }
+
+    public void streamOpened() {
+        activeSubscribers.incrementAndGet();
+    }
+
+    public void streamClosed() {
+        activeSubscribers.decrementAndGet();
+    }
+
+    public void buffered(int delta) {
+        buffered.addAndGet(delta);
+    }
+
+    public void slowConsumer(String action) {
+        counters.computeIfAbsent(action, key -> Counter.builder("insurance.quotes.stream.slow_consumer")
+                        .description("Slow SSE subscribers' quotes dropped or coalesced, and streams closed")
+                        .tag("action", action)
+                        .register(registry))
+                .increment();
+    }
+
+    public int getActiveSubscribers() {
+        return activeSubscribers.get();
+    }
+
+    public long getBuffered() {
+        return buffered.get();
+    }
+}
@@ -0,0 +1,59 @@
+package com.insurance.backend.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Gauges for the scheduler that runs blocking repository calls, tagged with the configured kind.
+ * A growing queue means JPA calls wait for a thread rather than for the database.
+ */
+public class SchedulerMetrics implements MeterBinder {
+    private final String kind;
+    private final Scheduler scheduler;
+    private final LongSupplier busy;
+
+    public SchedulerMetrics(String kind, Scheduler scheduler, LongSupplier busy) {
+        this.kind = kind;
+        this.scheduler = scheduler;
+        this.busy = busy;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("insurance.repository.scheduler.queued", this, m -> queuedTasks(scheduler))
+                .description("Repository calls waiting for a thread")
+                .tag("scheduler", kind)
+                .register(registry);
+        Gauge.builder("insurance.repository.scheduler.busy", this, m -> busy.getAsLong())
+                .description("Repository calls currently running")
+                .tag("scheduler", kind)
+                .register(registry);
+    }
+
+    /**
+     * Repository calls running or waiting for a thread
+     */
+    public long pendingCalls() {
+        return queuedTasks(scheduler) + busy.getAsLong();
+    }
+
+    static long queuedTasks(Scheduler scheduler) {
+        // Each worker reports its own pending tasks
+        return Scannable.from(scheduler).inners()
+                .mapToLong(worker -> {
+                    Integer buffered = worker.scan(Scannable.Attr.BUFFERED);
+                    return buffered != null ? buffered : 0;
+                })
+                .sum();
+    }
+
+    public static long busyWorkers(Scheduler scheduler) {
+        Integer busy = Scannable.from(scheduler).scan(Scannable.Attr.BUFFERED);
+        return busy != null ? busy : 0;
+    }
+}
@@ -0,0 +1,55 @@
+package com.insurance.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A quote moved out of insurance_quotes once it reached a terminal status and aged past the archive horizon.
+ * Rows keep their original id and are only written by QuoteArchiver's INSERT ... SELECT.
+ */
+@Data
+@Entity
+@Table(name = "insurance_quotes_archive", indexes = {
+        @Index(name = "idx_insurance_quotes_archive_provider", columnList = "providerId")
+})
+@NoArgsConstructor
+public class ArchivedInsuranceQuote {
+    @Id
+    private Long id;
+
+    private String providerId;
+    private String quoteReference;
+    private BigDecimal premium;
+    private String coverageType;
+    private LocalDateTime validUntil;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Enumerated(EnumType.STRING)
+    private InsuranceQuote.QuoteStatus status;
+
+    private Long version;
+    private LocalDateTime archivedAt;
+
+    /**
+     * The quote as the hot-table API returns it
+     */
+    public InsuranceQuote toQuote() {
+        InsuranceQuote quote = new InsuranceQuote();
+        quote.setId(id);
+        quote.setProviderId(providerId);
+        quote.setQuoteReference(quoteReference);
+        quote.setPremium(premium);
+        quote.setCoverageType(coverageType);
+        quote.setValidUntil(validUntil);
+        quote.setCreatedAt(createdAt);
+        quote.setUpdatedAt(updatedAt);
+        quote.setStatus(status);
+        quote.setVersion(version);
+        return quote;
+    }
+}
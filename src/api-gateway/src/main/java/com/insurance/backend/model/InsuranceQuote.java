@@ -6,19 +6,30 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 
+import java.io.Serializable;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "insurance_quotes")
+@Table(name = "insurance_quotes", indexes = {
+        // The provider-filtered quote pages
+        @Index(name = "idx_insurance_quotes_provider_status", columnList = "providerId, status"),
+        // countByStatus and the expiry queries
+        @Index(name = "idx_insurance_quotes_status_valid_until", columnList = "status, validUntil")
+})
 @RequiredArgsConstructor
-public class InsuranceQuote {
+public class InsuranceQuote implements Serializable {
+    // Pooled sequence so Hibernate can batch inserts; IDENTITY needs a round-trip per row.
+    // Databases without sequences (MySQL) get an emulating table with the same pooling.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "insurance_quote_seq")
+    @SequenceGenerator(name = "insurance_quote_seq", sequenceName = "insurance_quote_seq", allocationSize = 50)
     private Long id;
 
     private String providerId;
+    // Provider's own reference; bulk ingestion upserts on it
+    @Column(unique = true)
     private String quoteReference;
     private BigDecimal premium;
     private String coverageType;
@@ -29,6 +40,10 @@ public class InsuranceQuote {
     @Enumerated(EnumType.STRING)
     private QuoteStatus status;
 
+    // Guards read-modify-write updates; the conditional select in the repository bumps it too
+    @Version
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
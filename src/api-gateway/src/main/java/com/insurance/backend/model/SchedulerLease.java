@@ -0,0 +1,25 @@
+package com.insurance.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Which gateway instance may run a cluster-wide scheduled job, and until when.
+ * One row per job, written only through SchedulerLeaseRepository's conditional statements.
+ */
+@Data
+@Entity
+@Table(name = "scheduler_leases")
+@NoArgsConstructor
+public class SchedulerLease {
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    private String lockedBy;
+    private LocalDateTime lockedAt;
+    private LocalDateTime lockedUntil;
+}
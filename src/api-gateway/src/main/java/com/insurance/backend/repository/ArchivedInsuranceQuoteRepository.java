@@ -0,0 +1,41 @@
+package com.insurance.backend.repository;
+
+import com.insurance.backend.model.ArchivedInsuranceQuote;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ArchivedInsuranceQuoteRepository extends JpaRepository<ArchivedInsuranceQuote, Long> {
+
+    /**
+     * Copy quotes from the hot table in one statement, without loading them
+     */
+    @Modifying
+    @Query(value = "INSERT INTO insurance_quotes_archive " +
+                   "(id, provider_id, quote_reference, premium, coverage_type, valid_until, created_at, updated_at, status, version, archived_at) " +
+                   "SELECT id, provider_id, quote_reference, premium, coverage_type, valid_until, created_at, updated_at, status, version, :archivedAt " +
+                   "FROM insurance_quotes WHERE id IN (:ids)", nativeQuery = true)
+    int copyFromQuotes(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    /**
+     * Keyset page over the archive, see InsuranceQuoteRepository.findPageAfter
+     */
+    @Query("SELECT q FROM ArchivedInsuranceQuote q WHERE q.id > :afterId ORDER BY q.id")
+    List<ArchivedInsuranceQuote> findPageAfter(@Param("afterId") long afterId, Pageable limit);
+
+    /**
+     * Keyset page of one provider's archived quotes, on idx_insurance_quotes_archive_provider
+     */
+    @Query("SELECT q FROM ArchivedInsuranceQuote q WHERE q.id > :afterId AND q.providerId = :providerId ORDER BY q.id")
+    List<ArchivedInsuranceQuote> findProviderPageAfter(@Param("afterId") long afterId,
+                                                       @Param("providerId") String providerId,
+                                                       Pageable limit);
+}
@@ -1,22 +1,123 @@
 package com.insurance.backend.repository;
 
 import com.insurance.backend.model.InsuranceQuote;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface InsuranceQuoteRepository extends JpaRepository<InsuranceQuote, Long> {
-    List<InsuranceQuote> findByProviderId(String providerId);
-    
-    List<InsuranceQuote> findByStatus(InsuranceQuote.QuoteStatus status);
-    
-    @Query("SELECT q FROM InsuranceQuote q WHERE q.validUntil <= :now AND q.status = 'PENDING'")
-    List<InsuranceQuote> findExpiredQuotes(@Param("now") LocalDateTime now);
-    
-    List<InsuranceQuote> findByProviderIdAndStatus(String providerId, InsuranceQuote.QuoteStatus status);
-}
\ No newline at end of file
+    // The provider and status pages are cached whole; any write to insurance_quotes invalidates them
+    String QUERY_CACHE_REGION = "insuranceQuoteQueries";
+
+    List<InsuranceQuote> findByQuoteReferenceIn(Collection<String> quoteReferences);
+
+    /**
+     * Ids of quotes in one of the given statuses whose last change is before the cutoff, oldest ids first
+     */
+    @Query("SELECT q.id FROM InsuranceQuote q WHERE q.status IN :statuses AND q.updatedAt < :cutoff ORDER BY q.id")
+    List<Long> findArchivableIds(@Param("statuses") Collection<InsuranceQuote.QuoteStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable limit);
+
+    /**
+     * Keyset page: the quotes after afterId in id order. Seeks straight to afterId on an index instead of
+     * scanning and discarding an OFFSET. Each filter combination has its own query: an
+     * "(:param IS NULL OR ...)" catch-all would keep MySQL off idx_insurance_quotes_provider_status.
+     */
+    @Transactional(readOnly = true)
+    @Query(QuoteView.SELECT + "FROM InsuranceQuote q WHERE q.id > :afterId ORDER BY q.id")
+    List<QuoteView> findPageAfter(@Param("afterId") long afterId, Pageable limit);
+
+    /**
+     * Keyset page of one provider's quotes, see findPageAfter
+     */
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
+    @Transactional(readOnly = true)
+    @Query(QuoteView.SELECT + "FROM InsuranceQuote q WHERE q.id > :afterId AND q.providerId = :providerId ORDER BY q.id")
+    List<QuoteView> findProviderPageAfter(@Param("afterId") long afterId,
+                                          @Param("providerId") String providerId,
+                                          Pageable limit);
+
+    /**
+     * Keyset page of the quotes in one status, see findPageAfter
+     */
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
+    @Transactional(readOnly = true)
+    @Query(QuoteView.SELECT + "FROM InsuranceQuote q WHERE q.id > :afterId AND q.status = :status ORDER BY q.id")
+    List<QuoteView> findStatusPageAfter(@Param("afterId") long afterId,
+                                        @Param("status") InsuranceQuote.QuoteStatus status,
+                                        Pageable limit);
+
+    /**
+     * Keyset page of one provider's quotes in one status, see findPageAfter
+     */
+    @QueryHints({@QueryHint(name = AvailableHints.HINT_CACHEABLE, value = "true"),
+                 @QueryHint(name = AvailableHints.HINT_CACHE_REGION, value = QUERY_CACHE_REGION)})
+    @Transactional(readOnly = true)
+    @Query(QuoteView.SELECT + "FROM InsuranceQuote q WHERE q.id > :afterId AND q.providerId = :providerId " +
+           "AND q.status = :status ORDER BY q.id")
+    List<QuoteView> findProviderStatusPageAfter(@Param("afterId") long afterId,
+                                                @Param("providerId") String providerId,
+                                                @Param("status") InsuranceQuote.QuoteStatus status,
+                                                Pageable limit);
+
+    /**
+     * Quotes per status, counted in the database
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new com.insurance.backend.repository.StatusCount(q.status, COUNT(q)) FROM InsuranceQuote q " +
+           "GROUP BY q.status")
+    List<StatusCount> countByStatus();
+
+    /**
+     * Select a quote in one statement, only if it is still pending.
+     * Returns the number of rows updated: 0 when the quote is missing or was already taken.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE InsuranceQuote q SET q.status = 'SELECTED', q.updatedAt = :now, q.version = q.version + 1 " +
+           "WHERE q.id = :id AND q.status = 'PENDING'")
+    int selectIfPending(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * Expire the given quotes that are still pending and past validUntil; the rest are left alone.
+     * Returns the number of quotes expired.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE InsuranceQuote q SET q.status = 'EXPIRED', q.updatedAt = :now, q.version = q.version + 1 " +
+           "WHERE q.id IN :ids AND q.status = 'PENDING' AND q.validUntil <= :now")
+    int expireIfDue(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Expire every pending quote past validUntil in one statement
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE InsuranceQuote q SET q.status = 'EXPIRED', q.updatedAt = :now, q.version = q.version + 1 " +
+           "WHERE q.status = 'PENDING' AND q.validUntil <= :now")
+    int expireAllDue(@Param("now") LocalDateTime now);
+
+    /**
+     * Keyset page of pending quotes expiring before the cutoff, in id order
+     */
+    @Query("SELECT new com.insurance.backend.repository.QuoteDeadline(q.id, q.validUntil) FROM InsuranceQuote q " +
+           "WHERE q.status = 'PENDING' AND q.validUntil < :before AND q.id > :afterId ORDER BY q.id")
+    List<QuoteDeadline> findPendingDeadlines(@Param("afterId") long afterId,
+                                             @Param("before") LocalDateTime before,
+                                             Pageable limit);
+}
@@ -0,0 +1,9 @@
+package com.insurance.backend.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A pending quote's id and expiry, all the expiry wheel needs to schedule it
+ */
+public record QuoteDeadline(Long id, LocalDateTime validUntil) {
+}
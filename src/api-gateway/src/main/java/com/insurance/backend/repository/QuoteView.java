@@ -0,0 +1,44 @@
+package com.insurance.backend.repository;
+
+import com.insurance.backend.model.InsuranceQuote;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only copy of one insurance_quotes row. Selected with a constructor expression, so Hibernate hands it
+ * back without a persistence-context entry, dirty-check snapshot or lifecycle callbacks.
+ */
+public record QuoteView(Long id,
+                        String providerId,
+                        String quoteReference,
+                        BigDecimal premium,
+                        String coverageType,
+                        LocalDateTime validUntil,
+                        LocalDateTime createdAt,
+                        LocalDateTime updatedAt,
+                        InsuranceQuote.QuoteStatus status,
+                        Long version) {
+
+    // JPQL select list for the constructor, in field order
+    static final String SELECT = "SELECT new com.insurance.backend.repository.QuoteView(q.id, q.providerId, " +
+            "q.quoteReference, q.premium, q.coverageType, q.validUntil, q.createdAt, q.updatedAt, q.status, q.version) ";
+
+    /**
+     * Detached quote for the API and caches, which speak InsuranceQuote
+     */
+    public InsuranceQuote toQuote() {
+        InsuranceQuote quote = new InsuranceQuote();
+        quote.setId(id);
+        quote.setProviderId(providerId);
+        quote.setQuoteReference(quoteReference);
+        quote.setPremium(premium);
+        quote.setCoverageType(coverageType);
+        quote.setValidUntil(validUntil);
+        quote.setCreatedAt(createdAt);
+        quote.setUpdatedAt(updatedAt);
+        quote.setStatus(status);
+        quote.setVersion(version);
+        return quote;
+    }
+}
@@ -0,0 +1,51 @@
+package com.insurance.backend.repository;
+
+import com.insurance.backend.model.SchedulerLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLeaseRepository extends JpaRepository<SchedulerLease, String> {
+
+    /**
+     * Take over a lease that has run out; the row lock makes at most one concurrent claim succeed
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.lockedBy = :owner, l.lockedAt = :now, l.lockedUntil = :until " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int claimIfFree(@Param("name") String name,
+                    @Param("owner") String owner,
+                    @Param("now") LocalDateTime now,
+                    @Param("until") LocalDateTime until);
+
+    /**
+     * First claim of a job; the primary key rejects every insert but one
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_leases (name, locked_by, locked_at, locked_until) " +
+                   "VALUES (:name, :owner, :now, :until)", nativeQuery = true)
+    int insertClaim(@Param("name") String name,
+                    @Param("owner") String owner,
+                    @Param("now") LocalDateTime now,
+                    @Param("until") LocalDateTime until);
+
+    /**
+     * Shorten a lease to until, provided it is still the one claimed at lockedAt
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SchedulerLease l SET l.lockedUntil = :until " +
+           "WHERE l.name = :name AND l.lockedBy = :owner AND l.lockedAt = :lockedAt")
+    int release(@Param("name") String name,
+                @Param("owner") String owner,
+                @Param("lockedAt") LocalDateTime lockedAt,
+                @Param("until") LocalDateTime until);
+}
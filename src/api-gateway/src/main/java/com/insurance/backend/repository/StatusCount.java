@@ -0,0 +1,9 @@
+package com.insurance.backend.repository;
+
+import com.insurance.backend.model.InsuranceQuote;
+
+/**
+ * Number of quotes in one status
+ */
+public record StatusCount(InsuranceQuote.QuoteStatus status, long count) {
+}
@@ -0,0 +1,54 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.metrics.ProviderCallMetrics;
+import com.insurance.backend.model.InsuranceQuote;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+
+/**
+ * Fetches quotes from an external provider's quote API
+ */
+@Slf4j
+@Component
+public class InsuranceProviderClient {
+
+    private final WebClient webClient;
+    private final ProviderCallMetrics providerCallMetrics;
+
+    // Test slices without WebClient auto-configuration still component-scan this class
+    public InsuranceProviderClient(ObjectProvider<WebClient.Builder> webClientBuilder,
+                                   ProviderCallMetrics providerCallMetrics) {
+        this.webClient = webClientBuilder.getIfAvailable(WebClient::builder).build();
+        this.providerCallMetrics = providerCallMetrics;
+    }
+
+    /**
+     * Quotes from the provider's apiUrl. A failed or slow provider yields no quotes
+     * instead of failing the aggregated response.
+     */
+    public Flux<InsuranceQuote> fetchQuotes(String providerId, InsuranceProviderConfig.ProviderProperties props) {
+        Flux<InsuranceQuote> call = webClient.get()
+                .uri(props.getApiUrl())
+                .accept(MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (props.getApiKey() != null) {
+                        headers.set("X-API-Key", props.getApiKey());
+                    }
+                })
+                .retrieve()
+                .bodyToFlux(InsuranceQuote.class)
+                .timeout(props.getTimeout())
+                .doOnNext(quote -> quote.setProviderId(providerId));
+
+        return providerCallMetrics.record(providerId, call)
+                .onErrorResume(e -> {
+                    log.warn("Provider {} quote request failed: {}", providerId, e.toString());
+                    return Flux.empty();
+                });
+    }
+}
@@ -11,9 +11,15 @@ public interface InsuranceQuoteService {
     
     Mono<InsuranceQuote> getQuoteFromProvider(String providerId);
     
-    Mono<InsuranceQuote> selectQuote(Long quoteId);
+    Mono<QuoteSelection> selectQuote(Long quoteId);
     
     Mono<Void> updateExpiredQuotes();
     
     Mono<Map<String, Object>> getQuoteStatistics();
+
+    Mono<QuoteIngestion> ingestQuotes(Flux<InsuranceQuote> quotes);
+
+    Mono<QuotePage> getQuotePage(Long afterId, String providerId, InsuranceQuote.QuoteStatus status, int size);
+
+    Mono<QuotePage> getArchivedQuotePage(Long afterId, String providerId, int size);
 }
\ No newline at end of file
@@ -1,31 +1,54 @@
 package com.insurance.backend.service;
 
+import com.insurance.backend.cache.ProviderResponseCache;
 import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.metrics.CircuitOpenException;
+import com.insurance.backend.metrics.ProviderCallMetrics;
 import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.model.ArchivedInsuranceQuote;
+import com.insurance.backend.repository.ArchivedInsuranceQuoteRepository;
 import com.insurance.backend.repository.InsuranceQuoteRepository;
+import com.insurance.backend.repository.QuoteView;
+import com.insurance.backend.repository.StatusCount;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class InsuranceQuoteServiceImpl implements InsuranceQuoteService {
+    static final int MAX_PAGE_SIZE = 500;
+    // Quotes of database-backed providers, cleared once a write here has completed. Other replicas are not
+    // told, so the cache's TTL in ehcache.xml is kept short. API provider responses do not depend on local
+    // writes, so ProviderResponseCache is left to its own soft and hard TTLs.
+    static final String QUOTE_CACHE = "insuranceQuotes";
 
     private final InsuranceQuoteRepository quoteRepository;
+    private final ArchivedInsuranceQuoteRepository archiveRepository;
     private final InsuranceProviderConfig providerConfig;
+    private final InsuranceProviderClient providerClient;
+    private final ProviderCallMetrics providerCallMetrics;
+    // Blocking JPA calls run here, see RepositorySchedulerConfig
+    private final Scheduler repositoryScheduler;
+    private final QuoteBatchWriter quoteBatchWriter;
+    private final CacheManager cacheManager;
+    private final ProviderResponseCache providerResponseCache;
+    private final QuoteReader quoteReader;
 
     @Override
  //   @Cacheable(cacheNames = "insuranceQuotes", key = "'all'")
@@ -37,12 +60,13 @@ public class InsuranceQuoteServiceImpl implements InsuranceQuoteService {
                     InsuranceProviderConfig.ProviderProperties props = entry.getValue();
 
                     if (props.isFetchFromDb()) {
-                        return Flux.defer(() -> Flux.fromIterable(quoteRepository.findByProviderId(providerId)))
-                        .subscribeOn(Schedulers.boundedElastic())
+                        return quoteReader.quotesFor(providerId)
+                        .onErrorResume(CircuitOpenException.class, e -> Flux.empty())
                         .doOnNext(quote -> System.out.println("Fetched from DB: " + quote));
+                    } else if (props.getApiUrl() != null) {
+                        return providerResponseCache.quotes(providerId, () -> providerClient.fetchQuotes(providerId, props));
                     } else {
-                        // Here we would make API calls to external providers
-                        // For now, returning dummy flux as placeholder
+                        // No quote API configured for this provider, returning dummy flux as placeholder
                         return Flux.just(new InsuranceQuote(providerId, 0.0, InsuranceQuote.QuoteStatus.PENDING, LocalDateTime.now().plusDays(1), null));
                     }
                 })
@@ -50,7 +74,6 @@ public class InsuranceQuoteServiceImpl implements InsuranceQuoteService {
     }
 
     @Override
-    @Cacheable(cacheNames = "insuranceQuotes", key = "#providerId")
     public Mono<InsuranceQuote> getQuoteFromProvider(String providerId) {
         var props = providerConfig.getProviders().get(providerId);
         if (props == null || !props.isEnabled()) {
@@ -58,49 +81,145 @@ public class InsuranceQuoteServiceImpl implements InsuranceQuoteService {
         }
 
         if (props.isFetchFromDb()) {
-            return Mono.fromCallable(() -> quoteRepository.findByProviderId(providerId))
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .flatMap(quotes -> Mono.justOrEmpty(quotes.stream().findFirst()));
+            // Cache the quote itself; @Cacheable would only store the unexecuted Mono
+            Cache quoteCache = cacheManager.getCache(QUOTE_CACHE);
+            InsuranceQuote cached = quoteCache.get(providerId, InsuranceQuote.class);
+            if (cached != null) {
+                return Mono.just(cached);
+            }
+            return providerCallMetrics.record(providerId,
+                            Mono.fromCallable(() -> quoteRepository.findProviderPageAfter(0L, providerId, PageRequest.of(0, 1)))
+                                    .subscribeOn(repositoryScheduler)
+                                    .flatMapMany(Flux::fromIterable))
+                    .onErrorResume(CircuitOpenException.class, e -> Flux.empty())
+                    .next()
+                    .map(QuoteView::toQuote)
+                    .doOnNext(found -> quoteCache.put(providerId, found));
+        } else if (props.getApiUrl() != null) {
+            // Refreshed ahead of expiry by ProviderResponseCache
+            return providerResponseCache.quotes(providerId, () -> providerClient.fetchQuotes(providerId, props)).next();
         } else {
-            // Here we would make API call to external provider
-            // For now, returning empty mono as placeholder
+            // No quote API configured for this provider
             return Mono.empty();
         }
     }
 
     @Override
-    @CacheEvict(cacheNames = {"insuranceQuotes", "providerResponses"}, allEntries = true)
-    public Mono<InsuranceQuote> selectQuote(Long quoteId) {
-        return Mono.fromCallable(() -> quoteRepository.findById(quoteId))
-                .subscribeOn(Schedulers.boundedElastic())
-                .flatMap(optionalQuote -> optionalQuote.map(quote -> {
-                    quote.setStatus(InsuranceQuote.QuoteStatus.SELECTED);
-                    return Mono.fromCallable(() -> quoteRepository.save(quote))
-                            .subscribeOn(Schedulers.boundedElastic());
-                }).orElse(Mono.empty()));
+    public Mono<QuoteSelection> selectQuote(Long quoteId) {
+        return Mono.fromCallable(() -> {
+            if (quoteRepository.selectIfPending(quoteId, LocalDateTime.now()) == 1) {
+                return QuoteSelection.SELECTED;
+            }
+            // Only a failed selection pays for a second query, to tell a missing quote from a taken one
+            return quoteRepository.existsById(quoteId) ? QuoteSelection.NOT_PENDING : QuoteSelection.NOT_FOUND;
+        }).subscribeOn(repositoryScheduler)
+                .doOnSuccess(selection -> {
+                    if (selection == QuoteSelection.SELECTED) {
+                        clearQuoteCache();
+                    }
+                });
     }
 
     @Override
-    @Scheduled(fixedDelay = 1, timeUnit = TimeUnit.HOURS)
-    @CacheEvict(cacheNames = {"insuranceQuotes", "providerResponses"}, allEntries = true)
     public Mono<Void> updateExpiredQuotes() {
-        return Mono.fromCallable(() -> {
-            var expiredQuotes = quoteRepository.findExpiredQuotes(LocalDateTime.now());
-            expiredQuotes.forEach(quote -> quote.setStatus(InsuranceQuote.QuoteStatus.EXPIRED));
-            quoteRepository.saveAll(expiredQuotes);
-            return null;
-        }).subscribeOn(Schedulers.boundedElastic()).then();
+        // One conditional UPDATE: a quote selected meanwhile is skipped instead of overwritten
+        return Mono.fromCallable(() -> quoteRepository.expireAllDue(LocalDateTime.now()))
+                .subscribeOn(repositoryScheduler)
+                .doOnSuccess(expired -> {
+                    if (expired != null && expired > 0) {
+                        clearQuoteCache();
+                    }
+                })
+                .then();
     }
 
     @Override
     public Mono<Map<String, Object>> getQuoteStatistics() {
+        // One GROUP BY instead of loading every quote of each status just to count them
         return Mono.fromCallable(() -> {
+            Map<InsuranceQuote.QuoteStatus, Long> counts = new EnumMap<>(InsuranceQuote.QuoteStatus.class);
+            long total = 0;
+            for (StatusCount count : quoteRepository.countByStatus()) {
+                if (count.status() != null) {
+                    counts.put(count.status(), count.count());
+                }
+                total += count.count();
+            }
             Map<String, Object> stats = new HashMap<>();
-            stats.put("total", quoteRepository.count());
-            stats.put("selected", quoteRepository.findByStatus(InsuranceQuote.QuoteStatus.SELECTED).size());
-            stats.put("expired", quoteRepository.findByStatus(InsuranceQuote.QuoteStatus.EXPIRED).size());
-            stats.put("pending", quoteRepository.findByStatus(InsuranceQuote.QuoteStatus.PENDING).size());
+            stats.put("total", total);
+            stats.put("selected", counts.getOrDefault(InsuranceQuote.QuoteStatus.SELECTED, 0L));
+            stats.put("expired", counts.getOrDefault(InsuranceQuote.QuoteStatus.EXPIRED, 0L));
+            stats.put("pending", counts.getOrDefault(InsuranceQuote.QuoteStatus.PENDING, 0L));
             return stats;
-        }).subscribeOn(Schedulers.boundedElastic());
+        }).subscribeOn(repositoryScheduler);
+    }
+
+    @Override
+    public Mono<QuoteIngestion> ingestQuotes(Flux<InsuranceQuote> quotes) {
+        // One transaction per batch, written in order so a burst never holds more than a batch in memory
+        return quotes.buffer(providerConfig.getIngestion().getBatchSize())
+                .concatMap(batch -> Mono.fromCallable(() -> quoteBatchWriter.upsert(batch))
+                        .subscribeOn(repositoryScheduler))
+                // Each batch is committed on its own, so clear after each rather than once at the end
+                .doOnNext(batch -> clearQuoteCache())
+                .reduce(QuoteIngestion.NONE, QuoteIngestion::plus);
+    }
+
+    @Override
+    public Mono<QuotePage> getQuotePage(Long afterId, String providerId, InsuranceQuote.QuoteStatus status, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return Mono.fromCallable(() -> {
+            List<InsuranceQuote> quotes = findPage(afterId != null ? afterId : 0L, providerId, status,
+                            PageRequest.of(0, pageSize))
+                    .stream()
+                    .map(QuoteView::toQuote)
+                    .toList();
+            return page(quotes, pageSize);
+        }).subscribeOn(repositoryScheduler);
+    }
+
+    @Override
+    public Mono<QuotePage> getArchivedQuotePage(Long afterId, String providerId, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return Mono.fromCallable(() -> {
+            long after = afterId != null ? afterId : 0L;
+            PageRequest limit = PageRequest.of(0, pageSize);
+            List<InsuranceQuote> quotes = (providerId != null
+                            ? archiveRepository.findProviderPageAfter(after, providerId, limit)
+                            : archiveRepository.findPageAfter(after, limit))
+                    .stream()
+                    .map(ArchivedInsuranceQuote::toQuote)
+                    .toList();
+            return page(quotes, pageSize);
+        }).subscribeOn(repositoryScheduler);
+    }
+
+    private List<QuoteView> findPage(long afterId, String providerId, InsuranceQuote.QuoteStatus status,
+                                     Pageable limit) {
+        if (providerId != null) {
+            return status != null
+                    ? quoteRepository.findProviderStatusPageAfter(afterId, providerId, status, limit)
+                    : quoteRepository.findProviderPageAfter(afterId, providerId, limit);
+        }
+        return status != null
+                ? quoteRepository.findStatusPageAfter(afterId, status, limit)
+                : quoteRepository.findPageAfter(afterId, limit);
+    }
+
+    /**
+     * Called after a write has committed. @CacheEvict on these Mono methods would clear the cache when the
+     * method returns, before the write runs, and a read in between would cache the old quote again.
+     */
+    private void clearQuoteCache() {
+        Cache quoteCache = cacheManager.getCache(QUOTE_CACHE);
+        if (quoteCache != null) {
+            quoteCache.clear();
+        }
+    }
+
+    private static QuotePage page(List<InsuranceQuote> quotes, int pageSize) {
+        // A short page is the last one
+        Long nextAfter = quotes.size() < pageSize ? null : quotes.get(quotes.size() - 1).getId();
+        return new QuotePage(quotes, nextAfter);
     }
-}
\ No newline at end of file
+}
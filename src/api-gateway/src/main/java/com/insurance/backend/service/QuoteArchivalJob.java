@@ -0,0 +1,49 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Keeps insurance_quotes bounded by live traffic: periodically archives expired and rejected quotes
+ * older than insurance.archive.horizon, one batch per transaction so locks stay short. Only the instance
+ * holding the quote-archival lease runs it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "insurance.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QuoteArchivalJob {
+
+    private static final String LEASE = "quote-archival";
+
+    private final QuoteArchiver quoteArchiver;
+    private final InsuranceProviderConfig providerConfig;
+    private final SchedulerLock schedulerLock;
+
+    @Scheduled(fixedDelayString = "${insurance.archive.interval:PT1H}", initialDelayString = "${insurance.archive.initial-delay:PT5M}")
+    public void archiveTerminalQuotes() {
+        InsuranceProviderConfig.ArchiveProperties archive = providerConfig.getArchive();
+        schedulerLock.runExclusively(LEASE, archive.getInterval(), () -> archive(archive));
+    }
+
+    private void archive(InsuranceProviderConfig.ArchiveProperties archive) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(archive.getHorizon());
+
+        int total = 0;
+        int moved;
+        do {
+            moved = quoteArchiver.archiveBatch(cutoff, archive.getBatchSize());
+            total += moved;
+        } while (moved == archive.getBatchSize());
+
+        if (total > 0) {
+            log.info("Archived {} quotes last changed before {}", total, cutoff);
+        }
+    }
+}
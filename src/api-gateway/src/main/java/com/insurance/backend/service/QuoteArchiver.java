@@ -0,0 +1,42 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.repository.ArchivedInsuranceQuoteRepository;
+import com.insurance.backend.repository.InsuranceQuoteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves one batch of terminal quotes from insurance_quotes to insurance_quotes_archive.
+ * Copy and delete share a transaction, so a quote is always in exactly one of the two tables.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuoteArchiver {
+    static final Set<InsuranceQuote.QuoteStatus> TERMINAL_STATUSES =
+            EnumSet.of(InsuranceQuote.QuoteStatus.EXPIRED, InsuranceQuote.QuoteStatus.REJECTED);
+
+    private final InsuranceQuoteRepository quoteRepository;
+    private final ArchivedInsuranceQuoteRepository archiveRepository;
+
+    /**
+     * Returns the number of quotes moved; fewer than batchSize means nothing is left to archive
+     */
+    @Transactional
+    public int archiveBatch(LocalDateTime cutoff, int batchSize) {
+        List<Long> ids = quoteRepository.findArchivableIds(TERMINAL_STATUSES, cutoff, PageRequest.of(0, batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        archiveRepository.copyFromQuotes(ids, LocalDateTime.now());
+        quoteRepository.deleteAllByIdInBatch(ids);
+        return ids.size();
+    }
+}
@@ -0,0 +1,97 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.repository.InsuranceQuoteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes one batch of ingested quotes in a single transaction, upserting on quoteReference.
+ * Existing quotes are found with one IN query; inserts and updates are then flushed as JDBC batches.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuoteBatchWriter {
+
+    private final InsuranceQuoteRepository quoteRepository;
+    private final QuoteExpiryWheel expiryWheel;
+
+    @Transactional
+    public QuoteIngestion upsert(List<InsuranceQuote> batch) {
+        // A reference repeated within the batch keeps its last version
+        Map<String, InsuranceQuote> byReference = new LinkedHashMap<>();
+        List<InsuranceQuote> inserts = new ArrayList<>();
+        for (InsuranceQuote quote : batch) {
+            if (quote.getQuoteReference() == null) {
+                inserts.add(quote);
+            } else {
+                byReference.put(quote.getQuoteReference(), quote);
+            }
+        }
+
+        List<InsuranceQuote> refreshed = new ArrayList<>();
+        if (!byReference.isEmpty()) {
+            for (InsuranceQuote existing : quoteRepository.findByQuoteReferenceIn(byReference.keySet())) {
+                refresh(existing, byReference.remove(existing.getQuoteReference()));
+                refreshed.add(existing);
+            }
+        }
+        inserts.addAll(byReference.values());
+
+        for (InsuranceQuote quote : inserts) {
+            // Ids and versions are ours to assign, whatever the caller sent
+            quote.setId(null);
+            quote.setVersion(null);
+            if (quote.getStatus() == null) {
+                quote.setStatus(InsuranceQuote.QuoteStatus.PENDING);
+            }
+        }
+        quoteRepository.saveAll(inserts);
+        scheduleExpiryAfterCommit(inserts, refreshed);
+        return new QuoteIngestion(inserts.size(), refreshed.size());
+    }
+
+    /**
+     * Hand the pending quotes to the expiry wheel once they are committed, so a quote already past
+     * validUntil is not expired before its row is visible
+     */
+    private void scheduleExpiryAfterCommit(List<InsuranceQuote> inserts, List<InsuranceQuote> refreshed) {
+        List<InsuranceQuote> pending = new ArrayList<>();
+        for (List<InsuranceQuote> quotes : List.of(inserts, refreshed)) {
+            for (InsuranceQuote quote : quotes) {
+                if (quote.getStatus() == InsuranceQuote.QuoteStatus.PENDING && quote.getValidUntil() != null) {
+                    pending.add(quote);
+                }
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                for (InsuranceQuote quote : pending) {
+                    expiryWheel.schedule(quote.getId(), quote.getValidUntil());
+                }
+            }
+        });
+    }
+
+    /**
+     * Take the provider's latest terms; the status stays ours, so a selected quote remains selected
+     */
+    private static void refresh(InsuranceQuote existing, InsuranceQuote incoming) {
+        existing.setProviderId(incoming.getProviderId());
+        existing.setPremium(incoming.getPremium());
+        existing.setCoverageType(incoming.getCoverageType());
+        existing.setValidUntil(incoming.getValidUntil());
+    }
+}
@@ -0,0 +1,95 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.repository.InsuranceQuoteRepository;
+import com.insurance.backend.repository.QuoteDeadline;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Expires pending quotes within a second or two of validUntil.
+ *
+ * Quotes are scheduled on QuoteExpiryWheel when ingested, and all pending quotes are loaded into it on
+ * startup. Every tick the quotes that fell due are expired in small conditional UPDATEs. The hourly
+ * reconciliation scan still expires anything the wheel never saw: quotes ingested by another instance
+ * that then stopped, or further out than the wheel's horizon when they were loaded. Ticks run on every
+ * instance, each over the quotes its own wheel holds; the reconciliation scan runs on one instance per
+ * interval, under the quote-expiry-reconcile lease.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class QuoteExpiryJob {
+    private static final int LOAD_PAGE_SIZE = 1000;
+    // Quotes further out are picked up by a later restart or the reconciliation scan
+    private static final Duration LOAD_HORIZON = Duration.ofDays(180);
+    private static final String RECONCILE_LEASE = "quote-expiry-reconcile";
+
+    private final QuoteExpiryWheel expiryWheel;
+    private final InsuranceQuoteRepository quoteRepository;
+    private final InsuranceQuoteService quoteService;
+    private final InsuranceProviderConfig providerConfig;
+    private final CacheManager cacheManager;
+    private final SchedulerLock schedulerLock;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void schedulePendingQuotes() {
+        LocalDateTime before = LocalDateTime.now().plus(LOAD_HORIZON);
+        long afterId = 0;
+        int scheduled = 0;
+        List<QuoteDeadline> page;
+        do {
+            page = quoteRepository.findPendingDeadlines(afterId, before, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (QuoteDeadline deadline : page) {
+                if (expiryWheel.schedule(deadline.id(), deadline.validUntil())) {
+                    scheduled++;
+                }
+                afterId = deadline.id();
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+        log.info("Scheduled expiry of {} pending quotes", scheduled);
+    }
+
+    @Scheduled(fixedDelayString = "${insurance.expiry.tick:PT1S}")
+    public void expireDueQuotes() {
+        List<Long> due = expiryWheel.advance();
+        if (due.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = providerConfig.getExpiry().getBatchSize();
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            expired += quoteRepository.expireIfDue(due.subList(from, Math.min(from + batchSize, due.size())), now);
+        }
+        if (expired > 0) {
+            Cache quoteCache = cacheManager.getCache(InsuranceQuoteServiceImpl.QUOTE_CACHE);
+            if (quoteCache != null) {
+                quoteCache.clear();
+            }
+            log.debug("Expired {} quotes", expired);
+        }
+    }
+
+    /**
+     * Safety net for quotes the wheel does not hold
+     */
+    @Scheduled(fixedDelayString = "${insurance.expiry.reconcile-interval:PT1H}",
+               initialDelayString = "${insurance.expiry.reconcile-interval:PT1H}")
+    public void reconcile() {
+        schedulerLock.runExclusively(RECONCILE_LEASE, providerConfig.getExpiry().getReconcileInterval(),
+                () -> quoteService.updateExpiredQuotes().block());
+    }
+}
@@ -0,0 +1,120 @@
+package com.insurance.backend.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hierarchical timing wheel of pending quote deadlines, one-second ticks.
+ *
+ * Four levels of 64 slots cover 64 seconds, ~68 minutes, ~73 hours and ~194 days. A quote sits in the
+ * lowest level whose span covers its delay and moves down a level each time the wheel reaches its slot,
+ * so scheduling and each tick cost O(1) however many quotes are pending. Quotes further out than the
+ * top level are not scheduled and are left to the reconciliation scan.
+ *
+ * Deadlines are hints: a quote selected or rescheduled meanwhile still fires, and the conditional update
+ * in InsuranceQuoteRepository.expireIfDue ignores it.
+ */
+@Component
+public class QuoteExpiryWheel {
+    static final long TICK_MILLIS = 1000;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int LEVELS = 4;
+    private static final long HORIZON_TICKS = 1L << (SLOT_BITS * LEVELS);
+
+    private final Clock clock;
+    @SuppressWarnings("unchecked")
+    private final List<Deadline>[][] slots = new List[LEVELS][SLOTS];
+    // The last tick whose deadlines have been handed out
+    private long currentTick;
+    private int size;
+
+    @Autowired
+    public QuoteExpiryWheel() {
+        this(Clock.systemDefaultZone());
+    }
+
+    QuoteExpiryWheel(Clock clock) {
+        this.clock = clock;
+        this.currentTick = clock.millis() / TICK_MILLIS;
+    }
+
+    /**
+     * Schedule a quote to be handed out by advance() once validUntil has passed.
+     * Returns false when validUntil is beyond the wheel's horizon.
+     */
+    public synchronized boolean schedule(long quoteId, LocalDateTime validUntil) {
+        long millis = validUntil.atZone(clock.getZone()).toInstant().toEpochMilli();
+        // First tick at or after validUntil; anything already due goes out on the next tick
+        long deadline = Math.max(Math.floorDiv(millis + TICK_MILLIS - 1, TICK_MILLIS), currentTick + 1);
+        if (deadline - currentTick >= HORIZON_TICKS) {
+            return false;
+        }
+        place(new Deadline(quoteId, deadline));
+        size++;
+        return true;
+    }
+
+    /**
+     * Move the wheel up to now and return the quotes whose deadline passed on the way
+     */
+    public synchronized List<Long> advance() {
+        long now = clock.millis() / TICK_MILLIS;
+        List<Long> due = new ArrayList<>();
+        while (currentTick < now) {
+            currentTick++;
+            // On a level's slot boundary its next slot moves down, highest level first so entries
+            // cascading from level 2 can still cascade again from level 1 on the same tick
+            int top = 0;
+            while (top < LEVELS - 1 && (currentTick & ((1L << (SLOT_BITS * (top + 1))) - 1)) == 0) {
+                top++;
+            }
+            for (int level = top; level >= 1; level--) {
+                List<Deadline> cascading = take(level, slot(currentTick, level));
+                for (Deadline deadline : cascading) {
+                    place(deadline);
+                }
+            }
+            for (Deadline deadline : take(0, slot(currentTick, 0))) {
+                due.add(deadline.quoteId());
+            }
+        }
+        size -= due.size();
+        return due;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void place(Deadline deadline) {
+        long delay = deadline.tick() - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delay >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int slot = slot(deadline.tick(), level);
+        if (slots[level][slot] == null) {
+            slots[level][slot] = new ArrayList<>();
+        }
+        slots[level][slot].add(deadline);
+    }
+
+    private List<Deadline> take(int level, int slot) {
+        List<Deadline> deadlines = slots[level][slot];
+        slots[level][slot] = null;
+        return deadlines != null ? deadlines : List.of();
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & (SLOTS - 1));
+    }
+
+    private record Deadline(long quoteId, long tick) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.insurance.backend.service;
+
+/**
+ * Counts from a bulk quote ingestion
+ */
+public record QuoteIngestion(int inserted, int updated) {
+
+    public static final QuoteIngestion NONE = new QuoteIngestion(0, 0);
+
+    public QuoteIngestion plus(QuoteIngestion other) {
+        return new QuoteIngestion(inserted + other.inserted, updated + other.updated);
+    }
+}
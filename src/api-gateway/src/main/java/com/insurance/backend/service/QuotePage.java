@@ -0,0 +1,11 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.model.InsuranceQuote;
+
+import java.util.List;
+
+/**
+ * One page of quotes in id order. Pass nextAfter as after to get the next page; it is null on the last page.
+ */
+public record QuotePage(List<InsuranceQuote> quotes, Long nextAfter) {
+}
@@ -0,0 +1,47 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.metrics.ProviderCallMetrics;
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.repository.InsuranceQuoteRepository;
+import com.insurance.backend.repository.QuoteView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+
+/**
+ * Reads a provider's stored quotes as keyset pages of projections, each page its own short read-only query.
+ * The next page is only fetched once the subscriber has taken the current one, so at most two pages are held
+ * and no connection stays open while a slow subscriber catches up. Each page read is timed as a provider call.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuoteReader {
+    static final int PAGE_SIZE = 500;
+
+    private final InsuranceQuoteRepository quoteRepository;
+    private final ProviderCallMetrics providerCallMetrics;
+    // Blocking JPA calls run here, see RepositorySchedulerConfig
+    private final Scheduler repositoryScheduler;
+
+    public Flux<InsuranceQuote> quotesFor(String providerId) {
+        return page(providerId, 0L)
+                // A short page is the last one
+                .expand(page -> page.size() < PAGE_SIZE ? Mono.empty() : page(providerId, page.get(page.size() - 1).id()))
+                .concatMapIterable(page -> page, 1)
+                .map(QuoteView::toQuote);
+    }
+
+    private Mono<List<QuoteView>> page(String providerId, long afterId) {
+        return providerCallMetrics.record(providerId,
+                        Mono.fromCallable(() -> quoteRepository.findProviderPageAfter(afterId, providerId,
+                                        PageRequest.of(0, PAGE_SIZE)))
+                                .subscribeOn(repositoryScheduler)
+                                .flux())
+                .next();
+    }
+}
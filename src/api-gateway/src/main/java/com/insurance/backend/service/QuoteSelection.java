@@ -0,0 +1,11 @@
+package com.insurance.backend.service;
+
+/**
+ * Outcome of selecting a quote
+ */
+public enum QuoteSelection {
+    SELECTED,
+    NOT_FOUND,
+    // The quote exists but was already selected, expired or rejected
+    NOT_PENDING
+}
@@ -0,0 +1,94 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.repository.SchedulerLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Lets one gateway instance at a time run a cluster-wide scheduled job, using a lease row per job in
+ * scheduler_leases.
+ *
+ * Every instance keeps its @Scheduled trigger; when it fires, the instance claims the lease with a
+ * conditional UPDATE (or the first INSERT) and skips the run if another instance holds it. The lease
+ * runs for insurance.scheduler-lock.lock-at-most-for while the job runs, so an instance that dies
+ * mid-run is taken over once that passes. After the run the lease is kept until 90% of the job's
+ * interval has elapsed since it started, so the other instances' triggers, which fire at other offsets,
+ * don't repeat the run, and an instance that dies between runs is taken over by the next trigger after it.
+ *
+ * Lease times come from each instance's clock, so instances need synchronised clocks, and lock-at-most-for
+ * must comfortably exceed the longest run. Call outside any transaction: a lost insert race would
+ * otherwise mark the caller's transaction rollback-only.
+ */
+@Slf4j
+@Component
+public class SchedulerLock {
+    private final SchedulerLeaseRepository leaseRepository;
+    private final InsuranceProviderConfig providerConfig;
+    private final Clock clock;
+    private final String owner;
+
+    @Autowired
+    public SchedulerLock(SchedulerLeaseRepository leaseRepository, InsuranceProviderConfig providerConfig) {
+        this(leaseRepository, providerConfig, Clock.systemDefaultZone(),
+                ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID().toString().substring(0, 8));
+    }
+
+    SchedulerLock(SchedulerLeaseRepository leaseRepository, InsuranceProviderConfig providerConfig, Clock clock, String owner) {
+        this.leaseRepository = leaseRepository;
+        this.providerConfig = providerConfig;
+        this.clock = clock;
+        this.owner = owner;
+    }
+
+    /**
+     * Run the task if no other instance holds the job's lease
+     *
+     * @param name     the job, one lease per name
+     * @param interval how often the job's trigger fires on each instance
+     * @return whether this instance ran the task
+     */
+    public boolean runExclusively(String name, Duration interval, Runnable task) {
+        // Truncated so the release below matches the stored timestamp exactly
+        LocalDateTime lockedAt = LocalDateTime.now(clock).truncatedTo(ChronoUnit.MILLIS);
+        if (!claim(name, lockedAt, lockedAt.plus(providerConfig.getSchedulerLock().getLockAtMostFor()))) {
+            log.debug("Skipping {}, the lease is held by another instance", name);
+            return false;
+        }
+
+        try {
+            task.run();
+        } finally {
+            LocalDateTime keepUntil = lockedAt.plus(interval.multipliedBy(9).dividedBy(10));
+            LocalDateTime now = LocalDateTime.now(clock).truncatedTo(ChronoUnit.MILLIS);
+            if (leaseRepository.release(name, owner, lockedAt, keepUntil.isAfter(now) ? keepUntil : now) == 0) {
+                log.warn("Lease on {} ran out while the job was running; raise insurance.scheduler-lock.lock-at-most-for", name);
+            }
+        }
+        return true;
+    }
+
+    private boolean claim(String name, LocalDateTime now, LocalDateTime until) {
+        if (leaseRepository.claimIfFree(name, owner, now, until) == 1) {
+            return true;
+        }
+        if (leaseRepository.existsById(name)) {
+            return false;
+        }
+        try {
+            return leaseRepository.insertClaim(name, owner, now, until) == 1;
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the row first
+            return false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.insurance.backend;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Path;
+
+@SpringBootTest(properties = "spring.rsocket.server.port=0")
+class TravelAApplicationTests {
+
+	// Not the shared persistent cache directory, which may hold caches from another build
+	@TempDir
+	static Path cacheDirectory;
+
+	@DynamicPropertySource
+	static void cacheProperties(DynamicPropertyRegistry registry) {
+		registry.add("insurance.cache.directory", () -> cacheDirectory.toString());
+	}
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.insurance.backend.cache;
+
+import com.insurance.backend.model.InsuranceQuote;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InsuranceQuoteSerializerTest {
+
+    private final InsuranceQuoteSerializer serializer = new InsuranceQuoteSerializer(getClass().getClassLoader());
+
+    @Test
+    void read_ReturnsEqualQuote() throws Exception {
+        // Arrange
+        var quote = sampleQuote();
+
+        // Act
+        var copy = serializer.read(serializer.serialize(quote));
+
+        // Assert
+        assertThat(copy).isEqualTo(quote);
+        assertThat(copy.getPremium().scale()).isEqualTo(2);
+    }
+
+    @Test
+    void read_HandlesNullFieldsAndDirectBuffers() throws Exception {
+        // Arrange
+        var quote = new InsuranceQuote();
+        quote.setProviderId("provider1");
+        var heap = serializer.serialize(quote);
+        // Off-heap stores hand values back in direct buffers
+        var direct = ByteBuffer.allocateDirect(heap.remaining()).put(heap).flip();
+
+        // Act
+        var copy = serializer.read(direct);
+
+        // Assert
+        assertThat(copy).isEqualTo(quote);
+        assertThat(serializer.equals(quote, serializer.serialize(quote))).isTrue();
+    }
+
+    @Test
+    void serialize_IsMuchSmallerThanJavaSerialization() {
+        // Arrange
+        var quote = sampleQuote();
+        var javaSerializer = new PlainJavaSerializer<InsuranceQuote>(getClass().getClassLoader());
+
+        // Act
+        int compact = serializer.serialize(quote).remaining();
+        int java = javaSerializer.serialize(quote).remaining();
+
+        // Assert
+        assertThat(compact * 5).isLessThan(java);
+    }
+
+    private static InsuranceQuote sampleQuote() {
+        var quote = new InsuranceQuote();
+        quote.setId(123_456L);
+        quote.setProviderId("providerA");
+        quote.setQuoteReference("QA-2024-000123");
+        quote.setPremium(new BigDecimal("149.99"));
+        quote.setCoverageType("Worldwide");
+        quote.setValidUntil(LocalDateTime.of(2024, 6, 30, 23, 59, 59));
+        quote.setCreatedAt(LocalDateTime.of(2024, 6, 1, 9, 15, 0, 123_456_000));
+        quote.setUpdatedAt(LocalDateTime.of(2024, 6, 2, 10, 0));
+        quote.setStatus(InsuranceQuote.QuoteStatus.SELECTED);
+        quote.setVersion(3L);
+        return quote;
+    }
+}
@@ -0,0 +1,138 @@
+package com.insurance.backend.cache;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.model.InsuranceQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProviderResponseCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private MutableClock clock;
+    private ProviderResponseCache cache;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        var properties = new InsuranceProviderConfig.ResponseCacheProperties();
+        properties.setSoftTtl(Duration.ofMinutes(5));
+        properties.setHardTtl(Duration.ofHours(1));
+        cache = new ProviderResponseCache(new ConcurrentMapCacheManager(), properties, registry, clock);
+        calls = new AtomicInteger();
+    }
+
+    @Test
+    void quotes_WithinSoftTtl_ServesCachedResponse() {
+        StepVerifier.create(cache.quotes("providerA", () -> call(quote(100)))).expectNextCount(1).verifyComplete();
+        clock.advance(Duration.ofMinutes(4));
+
+        StepVerifier.create(cache.quotes("providerA", () -> call(quote(200))))
+                .expectNextMatches(quote -> quote.getPremium().intValue() == 100)
+                .verifyComplete();
+        assertEquals(1, calls.get());
+        assertEquals(1, lookups("providerA", "fresh"));
+    }
+
+    @Test
+    void quotes_PastSoftTtl_ServesStaleResponseWhileOneCallRefreshesIt() {
+        StepVerifier.create(cache.quotes("providerA", () -> call(quote(100)))).expectNextCount(1).verifyComplete();
+        clock.advance(Duration.ofMinutes(10));
+        Sinks.Many<InsuranceQuote> provider = Sinks.many().unicast().onBackpressureBuffer();
+
+        // The refresh is still waiting on the provider, yet both callers are answered
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(cache.quotes("providerA", () -> call(provider.asFlux())))
+                    .expectNextMatches(quote -> quote.getPremium().intValue() == 100)
+                    .verifyComplete();
+        }
+        assertEquals(2, calls.get());
+
+        provider.tryEmitNext(quote(200));
+        provider.tryEmitComplete();
+        StepVerifier.create(cache.quotes("providerA", () -> call(quote(300))))
+                .expectNextMatches(quote -> quote.getPremium().intValue() == 200)
+                .verifyComplete();
+        assertEquals(2, lookups("providerA", "stale"));
+    }
+
+    @Test
+    void quotes_PastHardTtl_WaitsForProvider() {
+        StepVerifier.create(cache.quotes("providerA", () -> call(quote(100)))).expectNextCount(1).verifyComplete();
+        clock.advance(Duration.ofHours(2));
+
+        StepVerifier.create(cache.quotes("providerA", () -> call(quote(200))))
+                .expectNextMatches(quote -> quote.getPremium().intValue() == 200)
+                .verifyComplete();
+        assertEquals(2, lookups("providerA", "miss"));
+    }
+
+    @Test
+    void quotes_EmptyRefreshKeepsCachedResponse() {
+        StepVerifier.create(cache.quotes("providerA", () -> call(quote(100)))).expectNextCount(1).verifyComplete();
+        clock.advance(Duration.ofMinutes(10));
+
+        // A failed provider call reaches the cache as no quotes
+        StepVerifier.create(cache.quotes("providerA", () -> call(Flux.empty()))).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.quotes("providerA", () -> call(Flux.empty())))
+                .expectNextMatches(quote -> quote.getPremium().intValue() == 100)
+                .verifyComplete();
+    }
+
+    private Flux<InsuranceQuote> call(InsuranceQuote quote) {
+        return call(Flux.just(quote));
+    }
+
+    private Flux<InsuranceQuote> call(Flux<InsuranceQuote> quotes) {
+        return Flux.defer(() -> {
+            calls.incrementAndGet();
+            return quotes;
+        });
+    }
+
+    private static InsuranceQuote quote(double premium) {
+        return new InsuranceQuote("providerA", premium, InsuranceQuote.QuoteStatus.PENDING, null, null);
+    }
+
+    private double lookups(String providerId, String result) {
+        return registry.get("insurance.provider.cache").tag("providerId", providerId).tag("result", result)
+                .counter().count();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.insurance.backend.config;
+
+import com.insurance.backend.model.InsuranceQuote;
+import org.ehcache.PersistentCacheManager;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CacheConfigTest {
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void jCacheCacheManager_ReloadsQuotesAfterCleanShutdown() throws Exception {
+        // Arrange
+        var quote = new InsuranceQuote();
+        quote.setProviderId("provider1");
+        quote.setPremium(new BigDecimal("99.50"));
+        try (var cacheManager = newCacheManager()) {
+            cacheManager.getCache("insuranceQuotes", String.class, InsuranceQuote.class).put("provider1", quote);
+        }
+
+        // Act
+        try (var restarted = newCacheManager()) {
+            var reloaded = restarted.getCache("insuranceQuotes", String.class, InsuranceQuote.class).get("provider1");
+
+            // Assert
+            assertThat(reloaded).isEqualTo(quote);
+        }
+    }
+
+    @Test
+    void jCacheCacheManager_DiscardsPersistedCachesOfAnotherType() throws Exception {
+        // Arrange: an earlier build persisted insuranceQuotes with String values
+        try (PersistentCacheManager previous = CacheManagerBuilder.newCacheManagerBuilder()
+                .with(CacheManagerBuilder.persistence(cacheDirectory.toFile()))
+                .withCache("insuranceQuotes", CacheConfigurationBuilder.newCacheConfigurationBuilder(String.class,
+                        String.class, ResourcePoolsBuilder.heap(10).disk(1, MemoryUnit.MB, true)))
+                .build(true)) {
+            previous.getCache("insuranceQuotes", String.class, String.class).put("provider1", "quote");
+        }
+
+        // Act
+        try (var cacheManager = newCacheManager()) {
+
+            // Assert
+            assertThat(cacheManager.getCache("insuranceQuotes", String.class, InsuranceQuote.class).get("provider1"))
+                    .isNull();
+        }
+    }
+
+    private javax.cache.CacheManager newCacheManager() throws Exception {
+        var cacheProperties = new CacheProperties();
+        var config = new InsuranceProviderConfig();
+        config.getCache().setDirectory(cacheDirectory);
+        return new CacheConfig().jCacheCacheManager(cacheProperties, config);
+    }
+}
@@ -0,0 +1,106 @@
+package com.insurance.backend.controller;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.metrics.ProviderCallMetrics;
+import com.insurance.backend.metrics.SchedulerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionFilterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong repositoryCalls = new AtomicLong();
+    private final AtomicInteger chainCalls = new AtomicInteger();
+    private final WebFilterChain chain = exchange -> {
+        chainCalls.incrementAndGet();
+        return Mono.empty();
+    };
+    private final AdmissionFilter filter = new AdmissionFilter(
+            new ClientRateLimiter(1, 1, 100),
+            new LoadShedder(new SchedulerMetrics("test", Schedulers.immediate(), repositoryCalls::get),
+                    new ProviderCallMetrics(registry, new InsuranceProviderConfig()), 10, 10),
+            registry);
+
+    @Test
+    void filter_RejectsClientOverItsRateWith429() {
+        // Arrange
+        filter.filter(exchange("/api/quotes", "10.0.0.1"), chain).block();
+
+        // Act
+        var rejected = exchange("/api/quotes", "10.0.0.1");
+        filter.filter(rejected, chain).block();
+        var otherClient = exchange("/api/quotes", "10.0.0.2");
+        filter.filter(otherClient, chain).block();
+
+        // Assert
+        assertThat(rejected.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(otherClient.getResponse().getStatusCode()).isNull();
+        assertThat(chainCalls).hasValue(2);
+        assertThat(registry.get("insurance.admission.rejected").tag("reason", "rate_limited").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void filter_IgnoresApiKeyHeaderWhenPickingTheBucket() {
+        // Arrange
+        filter.filter(exchange("/api/quotes", "10.0.0.1"), chain).block();
+
+        // Act: a fresh, unchecked key must not buy a fresh bucket
+        var rotated = MockServerWebExchange.from(MockServerHttpRequest.get("/api/quotes")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 40000))
+                .header("X-API-Key", "random-key"));
+        filter.filter(rotated, chain).block();
+
+        // Assert
+        assertThat(rotated.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    @Test
+    void filter_ShedsEveryRequestWith503WhenRepositoryCallsPileUp() {
+        // Arrange
+        repositoryCalls.set(11);
+
+        // Act
+        var shed = exchange("/api/quotes", "10.0.0.1");
+        filter.filter(shed, chain).block();
+
+        // Assert
+        assertThat(shed.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(chainCalls).hasValue(0);
+        assertThat(registry.get("insurance.admission.rejected").tag("reason", "overloaded").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void filter_LeavesNonApiPathsAlone() {
+        // Arrange
+        repositoryCalls.set(11);
+
+        // Act
+        var health = exchange("/actuator/health", "10.0.0.1");
+        filter.filter(health, chain).block();
+
+        // Assert
+        assertThat(health.getResponse().getStatusCode()).isNull();
+        assertThat(chainCalls).hasValue(1);
+    }
+
+    private static MockServerWebExchange exchange(String path, String remoteHost) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path)
+                .remoteAddress(new InetSocketAddress(remoteHost, 40000)));
+    }
+}
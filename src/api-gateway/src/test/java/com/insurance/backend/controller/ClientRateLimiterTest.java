@@ -0,0 +1,93 @@
+package com.insurance.backend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong nanoTime = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void tryAcquire_AdmitsBurstThenRejectsWithWait() {
+        // Arrange
+        var limiter = new ClientRateLimiter(10, 3, 100, nanoTime::get);
+
+        // Act
+        long first = limiter.tryAcquire("client");
+        long second = limiter.tryAcquire("client");
+        long third = limiter.tryAcquire("client");
+        long fourth = limiter.tryAcquire("client");
+
+        // Assert
+        assertThat(first).isZero();
+        assertThat(second).isZero();
+        assertThat(third).isZero();
+        assertThat(fourth).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void tryAcquire_RefillsAtTheConfiguredRate() {
+        // Arrange
+        var limiter = new ClientRateLimiter(10, 1, 100, nanoTime::get);
+        limiter.tryAcquire("client");
+
+        // Act
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        long halfway = limiter.tryAcquire("client");
+        nanoTime.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        long refilled = limiter.tryAcquire("client");
+
+        // Assert
+        assertThat(halfway).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(refilled).isZero();
+    }
+
+    @Test
+    void tryAcquire_KeepsClientsApart() {
+        // Arrange
+        var limiter = new ClientRateLimiter(10, 1, 100, nanoTime::get);
+        limiter.tryAcquire("scraper");
+
+        // Act
+        long scraper = limiter.tryAcquire("scraper");
+        long other = limiter.tryAcquire("other");
+
+        // Assert
+        assertThat(scraper).isPositive();
+        assertThat(other).isZero();
+    }
+
+    @Test
+    void tryAcquire_ForgetsBucketsOnceTheyHaveRefilled() {
+        // Arrange
+        var limiter = new ClientRateLimiter(10, 1, 100, nanoTime::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // Act
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        long a = limiter.tryAcquire("a");
+
+        // Assert
+        assertThat(a).isZero();
+        assertThat(limiter.trackedClients()).isEqualTo(1);
+    }
+
+    @Test
+    void tryAcquire_KeepsAtMostMaxClientsBuckets() {
+        // Arrange
+        var limiter = new ClientRateLimiter(10, 1, 100, nanoTime::get);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("client-" + i);
+        }
+
+        // Assert
+        assertThat(limiter.trackedClients()).isLessThanOrEqualTo(100);
+    }
+}
@@ -1,22 +1,32 @@
 package com.insurance.backend.controller;
 
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.metrics.QuoteStreamMetrics;
 import com.insurance.backend.model.InsuranceQuote;
 import com.insurance.backend.service.InsuranceQuoteService;
+import com.insurance.backend.service.QuoteIngestion;
+import com.insurance.backend.service.QuoteSelection;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(InsuranceQuoteController.class)
+@Import({QuoteEventStream.class, QuoteStreamMetrics.class, InsuranceProviderConfig.class, SimpleMeterRegistry.class})
 class InsuranceQuoteControllerTest {
 
     @Autowired
@@ -55,7 +65,7 @@ class InsuranceQuoteControllerTest {
 
         // Act & Assert
         webClient.get()
-                .uri("/api/quotes/provider/{providerId}", "provider1")
+                .uri("/api/quotes/{providerId}", "provider1")
                 .exchange()
                 .expectStatus().isOk()
                 .expectBody(InsuranceQuote.class)
@@ -63,21 +73,31 @@ class InsuranceQuoteControllerTest {
     }
 
     @Test
-    void selectQuote_WhenQuoteExists_ReturnsSelectedQuote() {
+    void selectQuote_WhenQuotePending_ReturnsNoContent() {
         // Arrange
-        var quote = new InsuranceQuote();
-        quote.setId(1L);
-        quote.setStatus(InsuranceQuote.QuoteStatus.SELECTED);
         when(quoteService.selectQuote(1L))
-                .thenReturn(Mono.just(quote));
+                .thenReturn(Mono.just(QuoteSelection.SELECTED));
 
         // Act & Assert
         webClient.post()
                 .uri("/api/quotes/{quoteId}/select", 1L)
                 .exchange()
-                .expectStatus().isOk()
-                .expectBody(InsuranceQuote.class)
-                .isEqualTo(quote);
+                .expectStatus().isNoContent();
+    }
+
+    @Test
+    void selectQuote_WhenQuoteAlreadyTaken_ReturnsConflict() {
+        // Arrange
+        when(quoteService.selectQuote(1L))
+                .thenReturn(Mono.just(QuoteSelection.NOT_PENDING));
+
+        // Act & Assert
+        webClient.post()
+                .uri("/api/quotes/{quoteId}/select", 1L)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody()
+                .jsonPath("$.detail").isEqualTo("Quote 1 is no longer pending");
     }
 
     @Test
@@ -103,4 +123,48 @@ class InsuranceQuoteControllerTest {
                 .jsonPath("$.expired").isEqualTo(1)
                 .jsonPath("$.pending").isEqualTo(7);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getQuoteStatistics_WithCborAccept_ReturnsCbor() throws Exception {
+        // Arrange
+        when(quoteService.getQuoteStatistics())
+                .thenReturn(Mono.just(Map.of("total", 10L, "pending", 7)));
+
+        // Act
+        byte[] body = webClient.get()
+                .uri("/api/quotes/statistics")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        Map<?, ?> stats = new CBORMapper().readValue(body, Map.class);
+        assertThat(stats.get("total")).isEqualTo(10);
+        assertThat(stats.get("pending")).isEqualTo(7);
+    }
+
+    @Test
+    void ingestQuotes_AcceptsNdjsonStream() {
+        // Arrange
+        when(quoteService.ingestQuotes(any()))
+                .thenAnswer(invocation -> invocation.<Flux<InsuranceQuote>>getArgument(0)
+                        .count()
+                        .map(count -> new QuoteIngestion(count.intValue(), 0)));
+
+        // Act & Assert
+        webClient.post()
+                .uri("/api/quotes/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"quoteReference\":\"A-1\",\"providerId\":\"provider1\"}\n" +
+                           "{\"quoteReference\":\"A-2\",\"providerId\":\"provider1\"}\n")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.inserted").isEqualTo(2)
+                .jsonPath("$.updated").isEqualTo(0);
+    }
+}
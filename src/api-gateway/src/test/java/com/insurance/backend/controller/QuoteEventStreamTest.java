@@ -0,0 +1,185 @@
+package com.insurance.backend.controller;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.metrics.QuoteStreamMetrics;
+import com.insurance.backend.model.InsuranceQuote;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuoteEventStreamTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QuoteStreamMetrics metrics = new QuoteStreamMetrics(registry);
+    private final InsuranceProviderConfig.StreamProperties properties = new InsuranceProviderConfig.StreamProperties();
+    private final VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+    private final QuoteEventStream eventStream = new QuoteEventStream(properties, metrics, timer);
+
+    @Test
+    void stream_SendsQuotesAsEventsThenCompletes() {
+        // Act & Assert
+        StepVerifier.create(eventStream.stream(Flux.just(quote("providerA", 1), quote("providerB", 2))))
+                .assertNext(event -> assertThat(event.data().getProviderId()).isEqualTo("providerA"))
+                .assertNext(event -> assertThat(event.data().getProviderId()).isEqualTo("providerB"))
+                .verifyComplete();
+        assertThat(metrics.getActiveSubscribers()).isZero();
+        assertThat(metrics.getBuffered()).isZero();
+    }
+
+    @Test
+    void stream_SendsHeartbeatsWhileNoQuotesArrive() {
+        // Arrange
+        properties.setHeartbeat(Duration.ofSeconds(15));
+        Sinks.Many<InsuranceQuote> quotes = Sinks.many().unicast().onBackpressureBuffer();
+
+        // Act & Assert
+        StepVerifier.create(eventStream.stream(quotes.asFlux()))
+                .then(() -> timer.advanceTimeBy(Duration.ofSeconds(15)))
+                .assertNext(event -> assertThat(event.comment()).isEqualTo("heartbeat"))
+                .then(() -> assertThat(metrics.getActiveSubscribers()).isEqualTo(1))
+                .then(quotes::tryEmitComplete)
+                .verifyComplete();
+    }
+
+    @Test
+    void stream_DropPolicyDiscardsQuotesBeyondTheBuffer() {
+        // Arrange
+        properties.setBufferSize(2);
+        properties.setSlowConsumerPolicy(SlowConsumerPolicy.DROP);
+
+        // Act & Assert
+        StepVerifier.create(eventStream.stream(Flux.just(quote("providerA", 1), quote("providerB", 2), quote("providerC", 3))), 0)
+                .then(() -> assertThat(metrics.getBuffered()).isEqualTo(2))
+                .thenRequest(3)
+                .expectNextMatches(event -> event.data().getProviderId().equals("providerA"))
+                .expectNextMatches(event -> event.data().getProviderId().equals("providerB"))
+                .verifyComplete();
+        assertThat(slowConsumer(QuoteStreamMetrics.DROPPED)).isEqualTo(1);
+    }
+
+    @Test
+    void stream_CoalescePolicyReplacesWaitingCopyOfSameQuoteWhenBufferIsFull() {
+        // Arrange
+        properties.setBufferSize(2);
+        properties.setSlowConsumerPolicy(SlowConsumerPolicy.COALESCE);
+        var quotes = Flux.just(quote(1L, "providerA", 1), quote(2L, "providerA", 2), quote(1L, "providerA", 3));
+
+        // Act & Assert
+        StepVerifier.create(eventStream.stream(quotes), 0)
+                .then(() -> assertThat(metrics.getBuffered()).isEqualTo(2))
+                .thenRequest(3)
+                .expectNextMatches(event -> event.data().getId() == 2L)
+                .expectNextMatches(event -> event.data().getId() == 1L && event.data().getPremium().intValue() == 3)
+                .verifyComplete();
+        assertThat(slowConsumer(QuoteStreamMetrics.COALESCED)).isEqualTo(1);
+    }
+
+    @Test
+    void stream_CoalescePolicyCountsEveryReplacedCopyInTheBufferedGauge() {
+        // Arrange
+        properties.setBufferSize(3);
+        properties.setSlowConsumerPolicy(SlowConsumerPolicy.COALESCE);
+        // Both copies of quote 1 arrive while there is room, so both wait until the buffer fills
+        var quotes = Flux.just(quote(1L, "providerA", 1), quote(1L, "providerA", 2), quote(2L, "providerA", 3),
+                quote(1L, "providerA", 4));
+
+        // Act & Assert
+        StepVerifier.create(eventStream.stream(quotes), 0)
+                .then(() -> assertThat(metrics.getBuffered()).isEqualTo(2))
+                .thenRequest(4)
+                .expectNextMatches(event -> event.data().getId() == 2L)
+                .expectNextMatches(event -> event.data().getId() == 1L && event.data().getPremium().intValue() == 4)
+                .verifyComplete();
+        assertThat(metrics.getBuffered()).isZero();
+    }
+
+    @Test
+    void stream_CoalescePolicyDropsOldestWhenBufferIsFullOfOtherQuotes() {
+        // Arrange
+        properties.setBufferSize(2);
+        properties.setSlowConsumerPolicy(SlowConsumerPolicy.COALESCE);
+        var quotes = Flux.just(quote(1L, "providerA", 1), quote(2L, "providerA", 2), quote(3L, "providerA", 3));
+
+        // Act & Assert
+        StepVerifier.create(eventStream.stream(quotes), 0)
+                .then(() -> assertThat(metrics.getBuffered()).isEqualTo(2))
+                .thenRequest(3)
+                .expectNextMatches(event -> event.data().getId() == 2L)
+                .expectNextMatches(event -> event.data().getId() == 3L)
+                .verifyComplete();
+        assertThat(slowConsumer(QuoteStreamMetrics.DROPPED)).isEqualTo(1);
+    }
+
+    @Test
+    void stream_CoalescePolicyKeepsEveryQuoteWhileBufferHasRoom() {
+        // Arrange
+        properties.setSlowConsumerPolicy(SlowConsumerPolicy.COALESCE);
+        var quotes = Flux.just(quote(1L, "providerA", 1), quote(2L, "providerA", 2), quote(1L, "providerA", 3));
+
+        // Act & Assert
+        StepVerifier.create(eventStream.stream(quotes), 0)
+                .then(() -> assertThat(metrics.getBuffered()).isEqualTo(3))
+                .thenRequest(3)
+                .expectNextMatches(event -> event.data().getPremium().intValue() == 1)
+                .expectNextMatches(event -> event.data().getPremium().intValue() == 2)
+                .expectNextMatches(event -> event.data().getPremium().intValue() == 3)
+                .verifyComplete();
+        assertThat(registry.find("insurance.quotes.stream.slow_consumer").counters()).isEmpty();
+    }
+
+    @Test
+    void stream_DisconnectPolicyClosesTheStreamWhenTheBufferFills() {
+        // Arrange
+        properties.setBufferSize(2);
+        properties.setSlowConsumerPolicy(SlowConsumerPolicy.DISCONNECT);
+        var quotes = Flux.just(quote("providerA", 1), quote("providerB", 2), quote("providerC", 3));
+
+        // Act & Assert
+        StepVerifier.create(eventStream.stream(quotes), 0)
+                .verifyComplete();
+        assertThat(slowConsumer(QuoteStreamMetrics.DISCONNECTED)).isEqualTo(1);
+        assertThat(metrics.getBuffered()).isZero();
+        assertThat(metrics.getActiveSubscribers()).isZero();
+    }
+
+    @Test
+    void stream_ClosesStalledClientsAfterIdleTimeout() {
+        // Arrange
+        properties.setHeartbeat(Duration.ofSeconds(15));
+        properties.setIdleTimeout(Duration.ofSeconds(60));
+        var quotes = Flux.just(quote("providerA", 1)).concatWith(Flux.never());
+
+        // Act & Assert
+        StepVerifier.create(eventStream.stream(quotes), 0)
+                .then(() -> timer.advanceTimeBy(Duration.ofSeconds(45)))
+                .then(() -> assertThat(metrics.getActiveSubscribers()).isEqualTo(1))
+                .then(() -> timer.advanceTimeBy(Duration.ofSeconds(15)))
+                .verifyComplete();
+        assertThat(slowConsumer(QuoteStreamMetrics.TIMED_OUT)).isEqualTo(1);
+    }
+
+    private double slowConsumer(String action) {
+        return registry.get("insurance.quotes.stream.slow_consumer").tag("action", action).counter().count();
+    }
+
+    private static InsuranceQuote quote(Long id, String providerId, double premium) {
+        var quote = quote(providerId, premium);
+        quote.setId(id);
+        return quote;
+    }
+
+    private static InsuranceQuote quote(String providerId, double premium) {
+        var quote = new InsuranceQuote();
+        quote.setProviderId(providerId);
+        quote.setPremium(BigDecimal.valueOf(premium));
+        return quote;
+    }
+}
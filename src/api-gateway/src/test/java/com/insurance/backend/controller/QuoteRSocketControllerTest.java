@@ -0,0 +1,90 @@
+package com.insurance.backend.controller;
+
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.service.InsuranceQuoteService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.rsocket.RSocketMessagingAutoConfiguration;
+import org.springframework.boot.autoconfigure.rsocket.RSocketRequesterAutoConfiguration;
+import org.springframework.boot.autoconfigure.rsocket.RSocketServerAutoConfiguration;
+import org.springframework.boot.autoconfigure.rsocket.RSocketStrategiesAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.rsocket.server.LocalRSocketServerPort;
+import org.springframework.http.MediaType;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(classes = QuoteRSocketController.class, properties = "spring.rsocket.server.port=0")
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, RSocketStrategiesAutoConfiguration.class,
+        RSocketMessagingAutoConfiguration.class, RSocketServerAutoConfiguration.class, RSocketRequesterAutoConfiguration.class})
+class QuoteRSocketControllerTest {
+
+    @LocalRSocketServerPort
+    private int port;
+
+    @Autowired
+    private RSocketRequester.Builder requesterBuilder;
+
+    @MockBean
+    private InsuranceQuoteService quoteService;
+
+    private RSocketRequester requester;
+
+    @BeforeEach
+    void setUp() {
+        requester = requesterBuilder.dataMimeType(MediaType.APPLICATION_CBOR).tcp("localhost", port);
+    }
+
+    @AfterEach
+    void tearDown() {
+        requester.dispose();
+    }
+
+    @Test
+    void streamQuotes_StreamsOnlyAsManyQuotesAsRequested() {
+        // Arrange
+        AtomicLong requestedFromService = new AtomicLong();
+        when(quoteService.getQuotesFromAllProviders()).thenReturn(Flux.range(1, 1000)
+                .map(i -> quote((long) i, "provider" + i))
+                .doOnRequest(requestedFromService::addAndGet));
+
+        // Act & Assert
+        StepVerifier.create(requester.route("quotes").retrieveFlux(InsuranceQuote.class).limitRate(10), 0)
+                .thenRequest(2)
+                .assertNext(quote -> assertThat(quote.getId()).isEqualTo(1L))
+                .assertNext(quote -> assertThat(quote.getProviderId()).isEqualTo("provider2"))
+                .thenCancel()
+                .verify();
+        assertThat(requestedFromService.get()).isLessThan(1000);
+    }
+
+    @Test
+    void getQuoteFromProvider_ReturnsQuote() {
+        // Arrange
+        when(quoteService.getQuoteFromProvider("provider1")).thenReturn(Mono.just(quote(1L, "provider1")));
+
+        // Act & Assert
+        StepVerifier.create(requester.route("quotes.{providerId}", "provider1").retrieveMono(InsuranceQuote.class))
+                .assertNext(quote -> assertThat(quote.getProviderId()).isEqualTo("provider1"))
+                .verifyComplete();
+    }
+
+    private static InsuranceQuote quote(Long id, String providerId) {
+        var quote = new InsuranceQuote();
+        quote.setId(id);
+        quote.setProviderId(providerId);
+        return quote;
+    }
+}
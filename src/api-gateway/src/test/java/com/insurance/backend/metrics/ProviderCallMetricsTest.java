@@ -0,0 +1,96 @@
+package com.insurance.backend.metrics;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProviderCallMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private MutableClock clock;
+    private ProviderCallMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        clock = new MutableClock();
+        var circuitBreaker = new InsuranceProviderConfig.CircuitBreakerProperties();
+        circuitBreaker.setFailureThreshold(2);
+        circuitBreaker.setOpenDuration(Duration.ofSeconds(30));
+        metrics = new ProviderCallMetrics(registry, circuitBreaker, clock);
+    }
+
+    @Test
+    void record_CountsOutcomesPerProvider() {
+        StepVerifier.create(metrics.record("providerA", Flux.just(1, 2))).expectNextCount(2).verifyComplete();
+        StepVerifier.create(metrics.record("providerA", Flux.error(new TimeoutException()))).verifyError();
+        StepVerifier.create(metrics.record("providerB", Flux.error(new IllegalStateException()))).verifyError();
+
+        assertEquals(1, outcomes("providerA", ProviderCallMetrics.SUCCESS));
+        assertEquals(1, outcomes("providerA", ProviderCallMetrics.TIMEOUT));
+        assertEquals(1, outcomes("providerB", ProviderCallMetrics.ERROR));
+        assertEquals(1, registry.get("insurance.provider.requests")
+                .tags("providerId", "providerA", "outcome", ProviderCallMetrics.SUCCESS).timer().count());
+    }
+
+    @Test
+    void record_TakingFirstElement_CountsAsSuccess() {
+        StepVerifier.create(metrics.record("providerA", Flux.just(1, 2, 3)).next()).expectNext(1).verifyComplete();
+
+        assertEquals(1, outcomes("providerA", ProviderCallMetrics.SUCCESS));
+    }
+
+    @Test
+    void record_AfterConsecutiveFailures_OpensCircuitUntilTrialSucceeds() {
+        StepVerifier.create(metrics.record("providerA", Flux.error(new IllegalStateException()))).verifyError();
+        StepVerifier.create(metrics.record("providerA", Flux.error(new IllegalStateException()))).verifyError();
+        assertEquals(ProviderCircuitBreaker.State.OPEN, metrics.getCircuitState("providerA"));
+
+        StepVerifier.create(metrics.record("providerA", Flux.just(1))).verifyError(CircuitOpenException.class);
+        assertEquals(1, outcomes("providerA", ProviderCallMetrics.CIRCUIT_OPEN));
+        assertEquals(2.0, registry.get("insurance.provider.circuit").tag("providerId", "providerA").gauge().value());
+
+        clock.advance(Duration.ofSeconds(31));
+        StepVerifier.create(metrics.record("providerA", Flux.just(1))).expectNext(1).verifyComplete();
+        assertEquals(ProviderCircuitBreaker.State.CLOSED, metrics.getCircuitState("providerA"));
+    }
+
+    private double outcomes(String providerId, String outcome) {
+        return registry.get("insurance.provider.outcomes")
+                .tags("providerId", providerId, "outcome", outcome).counter().count();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
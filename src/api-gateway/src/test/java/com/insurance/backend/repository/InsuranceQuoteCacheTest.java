@@ -0,0 +1,90 @@
+package com.insurance.backend.repository;
+
+import com.insurance.backend.config.CacheConfig;
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.model.InsuranceQuote;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({CacheConfig.class, InsuranceProviderConfig.class})
+// Each repository call runs in its own transaction and session, as it does behind the service
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InsuranceQuoteCacheTest {
+
+    @Autowired
+    private InsuranceQuoteRepository quoteRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @TempDir
+    static Path cacheDirectory;
+
+    @DynamicPropertySource
+    static void cacheProperties(DynamicPropertyRegistry registry) {
+        registry.add("insurance.cache.directory", () -> cacheDirectory.toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        quoteRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findProviderPageAfter_RepeatedPageIsServedFromQueryCacheUntilWrite() {
+        // Arrange
+        quoteRepository.save(quote("provider1"));
+        statistics.clear();
+
+        // Act
+        quoteRepository.findProviderPageAfter(0L, "provider1", PageRequest.of(0, 10));
+        var cached = quoteRepository.findProviderPageAfter(0L, "provider1", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(cached).hasSize(1);
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(1);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        // A write to the table invalidates the cached page
+        quoteRepository.save(quote("provider1"));
+        assertThat(quoteRepository.findProviderPageAfter(0L, "provider1", PageRequest.of(0, 10))).hasSize(2);
+    }
+
+    private static InsuranceQuote quote(String providerId) {
+        var quote = new InsuranceQuote();
+        quote.setProviderId(providerId);
+        quote.setStatus(InsuranceQuote.QuoteStatus.PENDING);
+        return quote;
+    }
+}
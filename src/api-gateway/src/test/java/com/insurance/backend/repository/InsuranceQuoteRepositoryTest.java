@@ -1,15 +1,18 @@
 package com.insurance.backend.repository;
 
 import com.insurance.backend.model.InsuranceQuote;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -26,7 +29,7 @@ class InsuranceQuoteRepositoryTest {
     private TestEntityManager entityManager;
 
     @Test
-    void findByProviderId_ReturnsMatchingQuotes() {
+    void findProviderPageAfter_ReturnsMatchingQuotes() {
         // Arrange
         var quote1 = new InsuranceQuote();
         quote1.setProviderId("provider1");
@@ -40,80 +43,143 @@ class InsuranceQuoteRepositoryTest {
         entityManager.flush();
 
         // Act
-        var result = quoteRepository.findByProviderId("provider1");
+        var result = quoteRepository.findProviderPageAfter(0, "provider1", PageRequest.of(0, 10));
 
         // Assert
         assertThat(result).hasSize(2);
-        assertThat(result).extracting(InsuranceQuote::getProviderId)
+        assertThat(result).extracting(QuoteView::providerId)
                 .containsOnly("provider1");
     }
 
     @Test
-    void findByStatus_ReturnsMatchingQuotes() {
+    void selectIfPending_UpdatesOnlyPendingQuotes() {
         // Arrange
-        var quote1 = new InsuranceQuote();
-        quote1.setProviderId("provider1");
-        quote1.setStatus(InsuranceQuote.QuoteStatus.PENDING);
-        
-        var quote2 = new InsuranceQuote();
-        quote2.setProviderId("provider2");
-        quote2.setStatus(InsuranceQuote.QuoteStatus.PENDING);
-        
-        quoteRepository.saveAll(List.of(quote1, quote2));
+        var pending = new InsuranceQuote();
+        pending.setProviderId("provider1");
+        pending.setStatus(InsuranceQuote.QuoteStatus.PENDING);
+
+        var expired = new InsuranceQuote();
+        expired.setProviderId("provider1");
+        expired.setStatus(InsuranceQuote.QuoteStatus.EXPIRED);
+
+        quoteRepository.saveAll(List.of(pending, expired));
         entityManager.flush();
 
         // Act
-        var result = quoteRepository.findByStatus(InsuranceQuote.QuoteStatus.PENDING);
+        int first = quoteRepository.selectIfPending(pending.getId(), LocalDateTime.now());
+        int second = quoteRepository.selectIfPending(pending.getId(), LocalDateTime.now());
+        int notPending = quoteRepository.selectIfPending(expired.getId(), LocalDateTime.now());
 
         // Assert
-        assertThat(result).hasSize(2);
-        assertThat(result).extracting(InsuranceQuote::getStatus)
-                .containsOnly(InsuranceQuote.QuoteStatus.PENDING);
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(notPending).isZero();
+        var selected = quoteRepository.findById(pending.getId()).orElseThrow();
+        assertThat(selected.getStatus()).isEqualTo(InsuranceQuote.QuoteStatus.SELECTED);
+        assertThat(selected.getVersion()).isEqualTo(pending.getVersion() + 1);
     }
 
     @Test
-    void findExpiredQuotes_ReturnsExpiredPendingQuotes() {
+    void findPageAfter_ReturnsNextQuotesInIdOrder() {
         // Arrange
-        var now = LocalDateTime.now();
-        var expiredQuote = new InsuranceQuote();
-        expiredQuote.setStatus(InsuranceQuote.QuoteStatus.PENDING);
-        expiredQuote.setValidUntil(now.minusHours(1));
-        
-        var validQuote = new InsuranceQuote();
-        validQuote.setStatus(InsuranceQuote.QuoteStatus.PENDING);
-        validQuote.setValidUntil(now.plusHours(1));
-        
-        quoteRepository.saveAll(List.of(expiredQuote, validQuote));
+        for (int i = 0; i < 5; i++) {
+            var quote = new InsuranceQuote();
+            quote.setProviderId(i % 2 == 0 ? "provider1" : "provider2");
+            quote.setStatus(InsuranceQuote.QuoteStatus.PENDING);
+            quoteRepository.save(quote);
+        }
+        entityManager.flush();
 
         // Act
-        var result = quoteRepository.findExpiredQuotes(now);
+        var firstPage = quoteRepository.findProviderPageAfter(0, "provider1", PageRequest.of(0, 2));
+        var secondPage = quoteRepository.findProviderPageAfter(firstPage.get(1).id(), "provider1", PageRequest.of(0, 2));
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getValidUntil()).isBefore(now);
+        assertThat(firstPage).hasSize(2);
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).id()).isGreaterThan(firstPage.get(1).id());
+        assertThat(secondPage).extracting(QuoteView::providerId).containsOnly("provider1");
     }
 
     @Test
-    void findByProviderIdAndStatus_ReturnsMatchingQuotes() {
+    void findProviderPageAfter_ReturnsQuotesWithoutManagingThem() {
         // Arrange
-        var quote1 = new InsuranceQuote();
-        quote1.setProviderId("provider1");
-        quote1.setStatus(InsuranceQuote.QuoteStatus.PENDING);
-        
-        var quote2 = new InsuranceQuote();
-        quote2.setProviderId("provider1");
-        quote2.setStatus(InsuranceQuote.QuoteStatus.SELECTED);
-        
-        quoteRepository.saveAll(List.of(quote1, quote2));
+        var quote = new InsuranceQuote("provider1", 100.0, InsuranceQuote.QuoteStatus.PENDING, null, null);
+        var other = new InsuranceQuote("provider2", 200.0, InsuranceQuote.QuoteStatus.PENDING, null, null);
+        quoteRepository.saveAll(List.of(quote, other));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        var views = quoteRepository.findProviderPageAfter(0, "provider1", PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(views).extracting(QuoteView::id).containsExactly(quote.getId());
+        assertThat(views.get(0).status()).isEqualTo(InsuranceQuote.QuoteStatus.PENDING);
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    void countByStatus_CountsQuotesPerStatus() {
+        // Arrange
+        quoteRepository.saveAll(List.of(
+                new InsuranceQuote("provider1", 100.0, InsuranceQuote.QuoteStatus.PENDING, null, null),
+                new InsuranceQuote("provider1", 100.0, InsuranceQuote.QuoteStatus.PENDING, null, null),
+                new InsuranceQuote("provider2", 100.0, InsuranceQuote.QuoteStatus.SELECTED, null, null)));
+        entityManager.flush();
+
+        // Act
+        var counts = quoteRepository.countByStatus();
+
+        // Assert
+        assertThat(counts).containsExactlyInAnyOrder(
+                new StatusCount(InsuranceQuote.QuoteStatus.PENDING, 2),
+                new StatusCount(InsuranceQuote.QuoteStatus.SELECTED, 1));
+    }
+
+    @Test
+    void statusPageQueries_FilterByStatusAndProvider() {
+        // Arrange
+        var pending = new InsuranceQuote("provider1", 100.0, InsuranceQuote.QuoteStatus.PENDING, null, null);
+        var selected = new InsuranceQuote("provider1", 100.0, InsuranceQuote.QuoteStatus.SELECTED, null, null);
+        var otherPending = new InsuranceQuote("provider2", 100.0, InsuranceQuote.QuoteStatus.PENDING, null, null);
+        quoteRepository.saveAll(List.of(pending, selected, otherPending));
+        entityManager.flush();
+
+        // Act
+        var allPending = quoteRepository.findStatusPageAfter(0, InsuranceQuote.QuoteStatus.PENDING, PageRequest.of(0, 10));
+        var providerPending = quoteRepository.findProviderStatusPageAfter(0, "provider1",
+                InsuranceQuote.QuoteStatus.PENDING, PageRequest.of(0, 10));
+        var all = quoteRepository.findPageAfter(0, PageRequest.of(0, 10));
+
+        // Assert
+        assertThat(allPending).extracting(QuoteView::id).containsExactly(pending.getId(), otherPending.getId());
+        assertThat(providerPending).extracting(QuoteView::id).containsExactly(pending.getId());
+        assertThat(all).hasSize(3);
+    }
+
+    @Test
+    void expireIfDue_ExpiresOnlyPendingQuotesPastValidUntil() {
+        // Arrange
+        var now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        var due = new InsuranceQuote("provider1", 100.0, InsuranceQuote.QuoteStatus.PENDING, now.minusSeconds(1), null);
+        var notYetDue = new InsuranceQuote("provider1", 100.0, InsuranceQuote.QuoteStatus.PENDING, now.plusHours(1), null);
+        var selected = new InsuranceQuote("provider1", 100.0, InsuranceQuote.QuoteStatus.SELECTED, now.minusSeconds(1), null);
+        quoteRepository.saveAll(List.of(due, notYetDue, selected));
         entityManager.flush();
 
         // Act
-        var result = quoteRepository.findByProviderIdAndStatus(
-            "provider1", InsuranceQuote.QuoteStatus.PENDING);
+        int expired = quoteRepository.expireIfDue(List.of(due.getId(), notYetDue.getId(), selected.getId()), now);
 
         // Assert
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getProviderId()).isEqualTo("provider1");
-        assertThat(result.get(0).getStatus()).isEqualTo(InsuranceQuote.QuoteStatus.PENDING);
+        assertThat(expired).isEqualTo(1);
+        assertThat(quoteRepository.findById(due.getId()).orElseThrow().getStatus())
+                .isEqualTo(InsuranceQuote.QuoteStatus.EXPIRED);
+        assertThat(quoteRepository.findById(notYetDue.getId()).orElseThrow().getStatus())
+                .isEqualTo(InsuranceQuote.QuoteStatus.PENDING);
+        assertThat(quoteRepository.findById(selected.getId()).orElseThrow().getStatus())
+                .isEqualTo(InsuranceQuote.QuoteStatus.SELECTED);
+        assertThat(quoteRepository.findPendingDeadlines(0, now.plusDays(1), PageRequest.of(0, 10)))
+                .containsExactly(new QuoteDeadline(notYetDue.getId(), notYetDue.getValidUntil()));
     }
-}
\ No newline at end of file
+}
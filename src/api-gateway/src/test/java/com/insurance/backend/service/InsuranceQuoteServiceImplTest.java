@@ -1,24 +1,36 @@
 package com.insurance.backend.service;
 
+import com.insurance.backend.cache.ProviderResponseCache;
 import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.metrics.ProviderCallMetrics;
+import com.insurance.backend.model.ArchivedInsuranceQuote;
 import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.repository.ArchivedInsuranceQuoteRepository;
 import com.insurance.backend.repository.InsuranceQuoteRepository;
+import com.insurance.backend.repository.QuoteView;
+import com.insurance.backend.repository.StatusCount;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,14 +39,30 @@ class InsuranceQuoteServiceImplTest {
     @Mock
     private InsuranceQuoteRepository quoteRepository;
 
+    @Mock
+    private ArchivedInsuranceQuoteRepository archiveRepository;
+
     @Mock
     private InsuranceProviderConfig providerConfig;
 
+    @Mock
+    private InsuranceProviderClient providerClient;
+
+    @Mock
+    private QuoteBatchWriter quoteBatchWriter;
+
+    @Mock
+    private QuoteReader quoteReader;
+
     private InsuranceQuoteServiceImpl quoteService;
 
     @BeforeEach
     void setUp() {
-        quoteService = new InsuranceQuoteServiceImpl(quoteRepository, providerConfig);
+        var providerCallMetrics = new ProviderCallMetrics(new SimpleMeterRegistry(), new InsuranceProviderConfig());
+        var cacheManager = new ConcurrentMapCacheManager();
+        var providerResponseCache = new ProviderResponseCache(cacheManager, new InsuranceProviderConfig(), new SimpleMeterRegistry());
+        quoteService = new InsuranceQuoteServiceImpl(quoteRepository, archiveRepository, providerConfig, providerClient, providerCallMetrics,
+                Schedulers.boundedElastic(), quoteBatchWriter, cacheManager, providerResponseCache, quoteReader);
     }
 
     @Test
@@ -47,8 +75,8 @@ class InsuranceQuoteServiceImplTest {
         providers.put("provider1", provider1Props);
 
         when(providerConfig.getProviders()).thenReturn(providers);
-        when(quoteRepository.findByProviderId("provider1"))
-                .thenReturn(Arrays.asList(new InsuranceQuote()));
+        when(quoteReader.quotesFor("provider1"))
+                .thenReturn(Flux.just(new InsuranceQuote()));
 
         // Act & Assert
         StepVerifier.create(quoteService.getQuotesFromAllProviders())
@@ -65,8 +93,8 @@ class InsuranceQuoteServiceImplTest {
 
         when(providerConfig.getProviders()).thenReturn(
                 Map.of("provider1", providerProps));
-        when(quoteRepository.findByProviderId("provider1"))
-                .thenReturn(Arrays.asList(new InsuranceQuote()));
+        when(quoteRepository.findProviderPageAfter(eq(0L), eq("provider1"), any()))
+                .thenReturn(List.of(view(1L, "provider1")));
 
         // Act & Assert
         StepVerifier.create(quoteService.getQuoteFromProvider("provider1"))
@@ -75,51 +103,220 @@ class InsuranceQuoteServiceImplTest {
     }
 
     @Test
-    void selectQuote_WhenQuoteExists_UpdatesStatus() {
+    void getQuoteFromProvider_SecondCallIsServedFromCache() {
+        // Arrange
+        var providerProps = new InsuranceProviderConfig.ProviderProperties();
+        providerProps.setEnabled(true);
+        providerProps.setFetchFromDb(true);
+        when(providerConfig.getProviders()).thenReturn(Map.of("provider1", providerProps));
+        when(quoteRepository.findProviderPageAfter(eq(0L), eq("provider1"), any()))
+                .thenReturn(List.of(view(1L, "provider1")));
+
+        // Act & Assert
+        StepVerifier.create(quoteService.getQuoteFromProvider("provider1"))
+                .expectNextCount(1)
+                .verifyComplete();
+        StepVerifier.create(quoteService.getQuoteFromProvider("provider1"))
+                .expectNextMatches(quote -> quote.getProviderId().equals("provider1"))
+                .verifyComplete();
+        verify(quoteRepository, times(1)).findProviderPageAfter(eq(0L), eq("provider1"), any());
+    }
+
+    @Test
+    void getQuoteFromProvider_WhenProviderHasApiUrl_FetchesFromProvider() {
+        // Arrange
+        var providerProps = new InsuranceProviderConfig.ProviderProperties();
+        providerProps.setEnabled(true);
+        providerProps.setApiUrl("http://localhost/quotes");
+
+        when(providerConfig.getProviders()).thenReturn(
+                Map.of("provider1", providerProps));
+        when(providerClient.fetchQuotes("provider1", providerProps))
+                .thenReturn(Flux.just(new InsuranceQuote(), new InsuranceQuote()));
+
+        // Act & Assert
+        StepVerifier.create(quoteService.getQuoteFromProvider("provider1"))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @Test
+    void selectQuote_WhenQuotePending_SelectsWithoutReading() {
+        // Arrange
+        when(quoteRepository.selectIfPending(eq(1L), any())).thenReturn(1);
+
+        // Act & Assert
+        StepVerifier.create(quoteService.selectQuote(1L))
+                .expectNext(QuoteSelection.SELECTED)
+                .verifyComplete();
+        verify(quoteRepository, never()).findById(any());
+        verify(quoteRepository, never()).existsById(any());
+    }
+
+    @Test
+    void selectQuote_ClearsCachedQuoteOnlyOnceSelectionHasRun() {
+        // Arrange
+        var providerProps = new InsuranceProviderConfig.ProviderProperties();
+        providerProps.setEnabled(true);
+        providerProps.setFetchFromDb(true);
+        when(providerConfig.getProviders()).thenReturn(Map.of("provider1", providerProps));
+        when(quoteRepository.findProviderPageAfter(eq(0L), eq("provider1"), any()))
+                .thenReturn(List.of(view(1L, "provider1")));
+        when(quoteRepository.selectIfPending(eq(1L), any())).thenReturn(1);
+        quoteService.getQuoteFromProvider("provider1").block();
+
+        // Act
+        var selection = quoteService.selectQuote(1L);
+        quoteService.getQuoteFromProvider("provider1").block();
+        selection.block();
+        quoteService.getQuoteFromProvider("provider1").block();
+
+        // Assert: the read before the selection ran was still served from the cache
+        verify(quoteRepository, times(2)).findProviderPageAfter(eq(0L), eq("provider1"), any());
+    }
+
+    @Test
+    void selectQuote_WhenQuoteAlreadyTaken_ReturnsNotPending() {
+        // Arrange
+        when(quoteRepository.selectIfPending(eq(1L), any())).thenReturn(0);
+        when(quoteRepository.existsById(1L)).thenReturn(true);
+
+        // Act & Assert
+        StepVerifier.create(quoteService.selectQuote(1L))
+                .expectNext(QuoteSelection.NOT_PENDING)
+                .verifyComplete();
+    }
+
+    @Test
+    void selectQuote_WhenQuoteMissing_ReturnsNotFound() {
         // Arrange
-        var quote = new InsuranceQuote();
-        quote.setId(1L);
-        when(quoteRepository.findById(1L)).thenReturn(Optional.of(quote));
-        when(quoteRepository.save(any(InsuranceQuote.class))).thenReturn(quote);
+        when(quoteRepository.selectIfPending(eq(1L), any())).thenReturn(0);
+        when(quoteRepository.existsById(1L)).thenReturn(false);
 
         // Act & Assert
         StepVerifier.create(quoteService.selectQuote(1L))
-                .expectNextMatches(savedQuote -> 
-                    savedQuote.getStatus() == InsuranceQuote.QuoteStatus.SELECTED)
+                .expectNext(QuoteSelection.NOT_FOUND)
                 .verifyComplete();
     }
 
     @Test
     void updateExpiredQuotes_UpdatesExpiredQuotes() {
         // Arrange
-        var expiredQuote = new InsuranceQuote();
-        expiredQuote.setStatus(InsuranceQuote.QuoteStatus.PENDING);
-        when(quoteRepository.findExpiredQuotes(any()))
-                .thenReturn(Arrays.asList(expiredQuote));
+        when(quoteRepository.expireAllDue(any())).thenReturn(1);
 
         // Act & Assert
         StepVerifier.create(quoteService.updateExpiredQuotes())
                 .verifyComplete();
+        verify(quoteRepository).expireAllDue(any());
     }
 
     @Test
     void getQuoteStatistics_ReturnsStatistics() {
         // Arrange
-        when(quoteRepository.count()).thenReturn(10L);
-        when(quoteRepository.findByStatus(InsuranceQuote.QuoteStatus.SELECTED))
-                .thenReturn(Arrays.asList(new InsuranceQuote(), new InsuranceQuote()));
-        when(quoteRepository.findByStatus(InsuranceQuote.QuoteStatus.EXPIRED))
-                .thenReturn(Arrays.asList(new InsuranceQuote()));
-        when(quoteRepository.findByStatus(InsuranceQuote.QuoteStatus.PENDING))
-                .thenReturn(Arrays.asList(new InsuranceQuote(), new InsuranceQuote(), new InsuranceQuote()));
+        when(quoteRepository.countByStatus()).thenReturn(List.of(
+                new StatusCount(InsuranceQuote.QuoteStatus.SELECTED, 2),
+                new StatusCount(InsuranceQuote.QuoteStatus.EXPIRED, 1),
+                new StatusCount(InsuranceQuote.QuoteStatus.PENDING, 3),
+                new StatusCount(InsuranceQuote.QuoteStatus.REJECTED, 4)));
 
         // Act & Assert
         StepVerifier.create(quoteService.getQuoteStatistics())
                 .expectNextMatches(stats -> 
                     stats.get("total").equals(10L) &&
-                    stats.get("selected").equals(2) &&
-                    stats.get("expired").equals(1) &&
-                    stats.get("pending").equals(3))
+                    stats.get("selected").equals(2L) &&
+                    stats.get("expired").equals(1L) &&
+                    stats.get("pending").equals(3L))
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getQuoteStatistics_WhenStatusHasNoQuotes_ReportsZero() {
+        // Arrange
+        when(quoteRepository.countByStatus()).thenReturn(List.of(
+                new StatusCount(InsuranceQuote.QuoteStatus.PENDING, 3)));
+
+        // Act & Assert
+        StepVerifier.create(quoteService.getQuoteStatistics())
+                .expectNextMatches(stats ->
+                    stats.get("total").equals(3L) &&
+                    stats.get("selected").equals(0L) &&
+                    stats.get("expired").equals(0L))
+                .verifyComplete();
+    }
+
+    @Test
+    void ingestQuotes_WritesInConfiguredBatches() {
+        // Arrange
+        var config = new InsuranceProviderConfig();
+        config.getIngestion().setBatchSize(2);
+        when(providerConfig.getIngestion()).thenReturn(config.getIngestion());
+        when(quoteBatchWriter.upsert(any())).thenAnswer(invocation -> {
+            List<InsuranceQuote> batch = invocation.getArgument(0);
+            return new QuoteIngestion(batch.size(), 0);
+        });
+
+        // Act & Assert
+        StepVerifier.create(quoteService.ingestQuotes(Flux.range(0, 5).map(i -> new InsuranceQuote())))
+                .expectNext(new QuoteIngestion(5, 0))
+                .verifyComplete();
+        verify(quoteBatchWriter, times(3)).upsert(any());
+    }
+
+    @Test
+    void getQuotePage_WhenPageFull_ReturnsNextCursor() {
+        // Arrange
+        when(quoteRepository.findProviderPageAfter(eq(10L), eq("provider1"), any()))
+                .thenReturn(List.of(view(11L, "provider1"), view(12L, "provider1")));
+
+        // Act & Assert
+        StepVerifier.create(quoteService.getQuotePage(10L, "provider1", null, 2))
+                .expectNextMatches(page -> page.quotes().size() == 2 && page.nextAfter() == 12L)
+                .verifyComplete();
+    }
+
+    @Test
+    void getQuotePage_WhenPageShort_HasNoNextCursor() {
+        // Arrange
+        when(quoteRepository.findPageAfter(eq(0L), any()))
+                .thenReturn(List.of(view(1L, "provider1")));
+
+        // Act & Assert
+        StepVerifier.create(quoteService.getQuotePage(null, null, null, 50))
+                .expectNextMatches(page -> page.quotes().size() == 1 && page.nextAfter() == null)
+                .verifyComplete();
+    }
+
+    @Test
+    void getQuotePage_WithProviderAndStatus_UsesTheFilteredQuery() {
+        // Arrange
+        when(quoteRepository.findProviderStatusPageAfter(eq(0L), eq("provider1"),
+                eq(InsuranceQuote.QuoteStatus.PENDING), any()))
+                .thenReturn(List.of(view(1L, "provider1")));
+
+        // Act & Assert
+        StepVerifier.create(quoteService.getQuotePage(null, "provider1", InsuranceQuote.QuoteStatus.PENDING, 50))
+                .expectNextMatches(page -> page.quotes().size() == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    void getArchivedQuotePage_ReturnsArchivedQuotesAsQuotes() {
+        // Arrange
+        var archived = new ArchivedInsuranceQuote();
+        archived.setId(7L);
+        archived.setStatus(InsuranceQuote.QuoteStatus.EXPIRED);
+        when(archiveRepository.findProviderPageAfter(eq(0L), eq("provider1"), any()))
+                .thenReturn(List.of(archived));
+
+        // Act & Assert
+        StepVerifier.create(quoteService.getArchivedQuotePage(null, "provider1", 50))
+                .expectNextMatches(page -> page.quotes().get(0).getId() == 7L
+                        && page.quotes().get(0).getStatus() == InsuranceQuote.QuoteStatus.EXPIRED
+                        && page.nextAfter() == null)
+                .verifyComplete();
+    }
+
+    private static QuoteView view(Long id, String providerId) {
+        return new QuoteView(id, providerId, null, null, null, null, null, null, InsuranceQuote.QuoteStatus.PENDING, 0L);
+    }
+}
@@ -0,0 +1,77 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.model.ArchivedInsuranceQuote;
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.repository.ArchivedInsuranceQuoteRepository;
+import com.insurance.backend.repository.InsuranceQuoteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(QuoteArchiver.class)
+class QuoteArchiverTest {
+
+    @Autowired
+    private QuoteArchiver quoteArchiver;
+
+    @Autowired
+    private InsuranceQuoteRepository quoteRepository;
+
+    @Autowired
+    private ArchivedInsuranceQuoteRepository archiveRepository;
+
+    @Test
+    void archiveBatch_MovesOnlyTerminalQuotesOlderThanCutoff() {
+        // Arrange
+        var expired = quoteRepository.save(quote(InsuranceQuote.QuoteStatus.EXPIRED));
+        var rejected = quoteRepository.save(quote(InsuranceQuote.QuoteStatus.REJECTED));
+        var pending = quoteRepository.save(quote(InsuranceQuote.QuoteStatus.PENDING));
+        quoteRepository.flush();
+
+        // Act
+        int moved = quoteArchiver.archiveBatch(LocalDateTime.now().plusMinutes(1), 10);
+
+        // Assert
+        assertThat(moved).isEqualTo(2);
+        assertThat(quoteRepository.findAll()).extracting(InsuranceQuote::getId).containsOnly(pending.getId());
+        assertThat(archiveRepository.findAll())
+                .extracting(ArchivedInsuranceQuote::getId)
+                .containsExactlyInAnyOrder(expired.getId(), rejected.getId());
+        assertThat(archiveRepository.findAll()).allSatisfy(archived -> {
+            assertThat(archived.getArchivedAt()).isNotNull();
+            assertThat(archived.getProviderId()).isEqualTo("provider1");
+        });
+    }
+
+    @Test
+    void archiveBatch_KeepsRecentTerminalQuotes() {
+        // Arrange
+        quoteRepository.saveAll(List.of(quote(InsuranceQuote.QuoteStatus.EXPIRED)));
+        quoteRepository.flush();
+
+        // Act
+        int moved = quoteArchiver.archiveBatch(LocalDateTime.now().minusDays(30), 10);
+
+        // Assert
+        assertThat(moved).isZero();
+        assertThat(archiveRepository.count()).isZero();
+    }
+
+    private static InsuranceQuote quote(InsuranceQuote.QuoteStatus status) {
+        var quote = new InsuranceQuote();
+        quote.setProviderId("provider1");
+        quote.setStatus(status);
+        return quote;
+    }
+}
@@ -0,0 +1,62 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.repository.InsuranceQuoteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({QuoteBatchWriter.class, QuoteExpiryWheel.class})
+class QuoteBatchWriterTest {
+
+    @Autowired
+    private QuoteBatchWriter quoteBatchWriter;
+
+    @Autowired
+    private InsuranceQuoteRepository quoteRepository;
+
+    @Test
+    void upsert_InsertsNewAndRefreshesExistingReferences() {
+        // Arrange
+        var selected = quote("REF-1", 100);
+        selected.setStatus(InsuranceQuote.QuoteStatus.SELECTED);
+        quoteRepository.saveAndFlush(selected);
+
+        // Act
+        var result = quoteBatchWriter.upsert(List.of(quote("REF-1", 120), quote("REF-2", 80), quote("REF-2", 90)));
+
+        // Assert
+        assertThat(result).isEqualTo(new QuoteIngestion(1, 1));
+        var stored = quoteRepository.findByQuoteReferenceIn(List.of("REF-1", "REF-2"));
+        assertThat(stored).hasSize(2);
+        assertThat(stored).filteredOn(q -> q.getQuoteReference().equals("REF-1")).singleElement()
+                .satisfies(q -> {
+                    assertThat(q.getPremium()).isEqualByComparingTo("120");
+                    assertThat(q.getStatus()).isEqualTo(InsuranceQuote.QuoteStatus.SELECTED);
+                });
+        assertThat(stored).filteredOn(q -> q.getQuoteReference().equals("REF-2")).singleElement()
+                .satisfies(q -> {
+                    assertThat(q.getPremium()).isEqualByComparingTo("90");
+                    assertThat(q.getStatus()).isEqualTo(InsuranceQuote.QuoteStatus.PENDING);
+                });
+    }
+
+    private static InsuranceQuote quote(String reference, int premium) {
+        var quote = new InsuranceQuote();
+        quote.setProviderId("provider1");
+        quote.setQuoteReference(reference);
+        quote.setPremium(BigDecimal.valueOf(premium));
+        return quote;
+    }
+}
@@ -0,0 +1,111 @@
+package com.insurance.backend.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QuoteExpiryWheelTest {
+    private static final Instant START = Instant.parse("2024-01-01T00:00:00.250Z");
+
+    private MutableClock clock;
+    private QuoteExpiryWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock();
+        wheel = new QuoteExpiryWheel(clock);
+    }
+
+    @Test
+    void advance_HandsOutEachQuoteOnTheTickItFallsDue() {
+        // Arrange: one deadline in each level, and one on a level boundary
+        List<Duration> delays = List.of(Duration.ofSeconds(5), Duration.ofSeconds(64), Duration.ofMinutes(50),
+                Duration.ofHours(5), Duration.ofDays(4));
+        for (int i = 0; i < delays.size(); i++) {
+            assertThat(wheel.schedule(i, at(delays.get(i)))).isTrue();
+        }
+
+        // Act: walk the clock forward a second at a time, noting when each quote comes out
+        List<Long> firedAfterSeconds = new ArrayList<>();
+        long seconds = 0;
+        while (wheel.size() > 0) {
+            clock.advance(Duration.ofSeconds(1));
+            seconds++;
+            for (Long ignored : wheel.advance()) {
+                firedAfterSeconds.add(seconds);
+            }
+        }
+
+        // Assert: validUntil is 250 ms past a tick, so each quote goes out on the following tick
+        assertThat(firedAfterSeconds).containsExactly(
+                delays.stream().map(delay -> delay.toSeconds() + 1).toArray(Long[]::new));
+    }
+
+    @Test
+    void advance_CatchesUpAfterAPause() {
+        // Arrange
+        wheel.schedule(1, at(Duration.ofMinutes(10)));
+        wheel.schedule(2, at(Duration.ofHours(3)));
+
+        // Act
+        clock.advance(Duration.ofHours(4));
+
+        // Assert
+        assertThat(wheel.advance()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void schedule_PastDueQuoteGoesOutOnTheNextTick() {
+        // Arrange
+        wheel.schedule(1, at(Duration.ofMinutes(-5)));
+
+        // Act
+        clock.advance(Duration.ofSeconds(1));
+
+        // Assert
+        assertThat(wheel.advance()).containsExactly(1L);
+    }
+
+    @Test
+    void schedule_RejectsQuotesBeyondTheHorizon() {
+        assertThat(wheel.schedule(1, at(Duration.ofDays(365)))).isFalse();
+        assertThat(wheel.size()).isZero();
+    }
+
+    private static LocalDateTime at(Duration fromStart) {
+        return LocalDateTime.ofInstant(START.plus(fromStart), ZoneOffset.UTC);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = START;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.metrics.ProviderCallMetrics;
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.repository.InsuranceQuoteRepository;
+import com.insurance.backend.repository.QuoteView;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteReaderTest {
+
+    @Mock
+    private InsuranceQuoteRepository quoteRepository;
+
+    private QuoteReader quoteReader;
+
+    @BeforeEach
+    void setUp() {
+        var providerCallMetrics = new ProviderCallMetrics(new SimpleMeterRegistry(), new InsuranceProviderConfig());
+        quoteReader = new QuoteReader(quoteRepository, providerCallMetrics, Schedulers.immediate());
+    }
+
+    @Test
+    void quotesFor_ReadsPagesUntilShortPage() {
+        // Arrange
+        when(quoteRepository.findProviderPageAfter(eq(0L), eq("provider1"), any()))
+                .thenReturn(views(1, QuoteReader.PAGE_SIZE));
+        when(quoteRepository.findProviderPageAfter(eq((long) QuoteReader.PAGE_SIZE), eq("provider1"), any()))
+                .thenReturn(views(QuoteReader.PAGE_SIZE + 1, 3));
+
+        // Act & Assert
+        StepVerifier.create(quoteReader.quotesFor("provider1"))
+                .expectNextCount(QuoteReader.PAGE_SIZE + 3)
+                .verifyComplete();
+        verify(quoteRepository, times(2)).findProviderPageAfter(anyLong(), eq("provider1"), any());
+    }
+
+    @Test
+    void quotesFor_FetchesNextPageOnlyWhenCurrentPageIsTaken() {
+        // Arrange
+        when(quoteRepository.findProviderPageAfter(eq(0L), eq("provider1"), any()))
+                .thenReturn(views(1, QuoteReader.PAGE_SIZE));
+
+        // Act & Assert
+        StepVerifier.create(quoteReader.quotesFor("provider1"), 10)
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+        verify(quoteRepository, times(1)).findProviderPageAfter(anyLong(), eq("provider1"), any());
+    }
+
+    private static List<QuoteView> views(long firstId, int count) {
+        return LongStream.range(firstId, firstId + count)
+                .mapToObj(id -> new QuoteView(id, "provider1", null, null, null, null, null, null,
+                        InsuranceQuote.QuoteStatus.PENDING, 0L))
+                .toList();
+    }
+}
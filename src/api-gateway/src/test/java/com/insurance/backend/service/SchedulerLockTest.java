@@ -0,0 +1,137 @@
+package com.insurance.backend.service;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.repository.SchedulerLeaseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+// Each claim commits on its own, as it does between instances
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SchedulerLockTest {
+    private static final Duration INTERVAL = Duration.ofHours(1);
+
+    @Autowired
+    private SchedulerLeaseRepository leaseRepository;
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger runs = new AtomicInteger();
+    private SchedulerLock instanceA;
+    private SchedulerLock instanceB;
+
+    @BeforeEach
+    void setUp() {
+        var providerConfig = new InsuranceProviderConfig();
+        providerConfig.getSchedulerLock().setLockAtMostFor(Duration.ofMinutes(30));
+        instanceA = new SchedulerLock(leaseRepository, providerConfig, clock, "instance-a");
+        instanceB = new SchedulerLock(leaseRepository, providerConfig, clock, "instance-b");
+    }
+
+    @AfterEach
+    void tearDown() {
+        leaseRepository.deleteAll();
+    }
+
+    @Test
+    void runExclusively_RunsOnOneInstancePerInterval() {
+        // Act
+        boolean ranOnA = instanceA.runExclusively("job", INTERVAL, runs::incrementAndGet);
+        clock.advance(Duration.ofMinutes(20));
+        boolean ranOnB = instanceB.runExclusively("job", INTERVAL, runs::incrementAndGet);
+
+        // Assert
+        assertThat(ranOnA).isTrue();
+        assertThat(ranOnB).isFalse();
+        assertThat(runs).hasValue(1);
+        assertThat(leaseRepository.findById("job")).get()
+                .satisfies(lease -> assertThat(lease.getLockedBy()).isEqualTo("instance-a"));
+    }
+
+    @Test
+    void runExclusively_AnotherInstanceRunsOnceTheIntervalHasMostlyPassed() {
+        // Arrange
+        instanceA.runExclusively("job", INTERVAL, runs::incrementAndGet);
+        clock.advance(Duration.ofMinutes(55));
+
+        // Act
+        boolean ranOnB = instanceB.runExclusively("job", INTERVAL, runs::incrementAndGet);
+
+        // Assert
+        assertThat(ranOnB).isTrue();
+        assertThat(runs).hasValue(2);
+        assertThat(leaseRepository.findById("job")).get()
+                .satisfies(lease -> assertThat(lease.getLockedBy()).isEqualTo("instance-b"));
+    }
+
+    @Test
+    void runExclusively_TakesOverFromAnInstanceThatDiedMidRun() {
+        // Arrange: instance A claimed the lease for lock-at-most-for and never released it
+        var claimedAt = LocalDateTime.ofInstant(clock.instant(), ZoneOffset.UTC);
+        leaseRepository.insertClaim("job", "instance-a", claimedAt, claimedAt.plusMinutes(30));
+
+        // Act
+        clock.advance(Duration.ofMinutes(10));
+        boolean ranWhileHeld = instanceB.runExclusively("job", INTERVAL, runs::incrementAndGet);
+        clock.advance(Duration.ofMinutes(21));
+        boolean ranAfterExpiry = instanceB.runExclusively("job", INTERVAL, runs::incrementAndGet);
+
+        // Assert
+        assertThat(ranWhileHeld).isFalse();
+        assertThat(ranAfterExpiry).isTrue();
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void runExclusively_ReleasesTheLeaseWhenTheJobFails() {
+        // Act
+        assertThatThrownBy(() -> instanceA.runExclusively("job", Duration.ZERO, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        boolean ranOnB = instanceB.runExclusively("job", INTERVAL, runs::incrementAndGet);
+
+        // Assert
+        assertThat(ranOnB).isTrue();
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant now = Instant.parse("2024-01-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -1,13 +0,0 @@
-package com.travelinsurance.travelA;
-
-import org.junit.jupiter.api.Test;
-import org.springframework.boot.test.context.SpringBootTest;
-
-@SpringBootTest
-class TravelAApplicationTests {
-
-	@Test
-	void contextLoads() {
-	}
-
-}
@@ -0,0 +1,34 @@
+#!/usr/bin/env bash
+# Measures cold versus warm first-request cost of the function app in fresh JVMs.
+#
+# Usage: scripts/measure-cold-start.sh [runs]
+# Build first with `mvn package` (or `mvn package -Pappcds` to also compare against the AppCDS archive).
+# Set MYSQL_CONNECTION_STRING, MYSQL_USER and MYSQL_PASSWORD to include pool and catalog initialisation.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+RUNS="${1:-5}"
+APP_DIR="target/azure-functions/travel-insurance-api"
+CLASSPATH="$(ls "$APP_DIR"/*.jar | head -n 1):$APP_DIR/lib/*"
+ARCHIVE="$APP_DIR/app-cds.jsa"
+
+measure() {
+    local label="$1"
+    shift
+    echo "== $label"
+    for ((i = 1; i <= RUNS; i++)); do
+        local start end
+        start=$(date +%s%N)
+        java "$@" -cp "$CLASSPATH" com.travelinsurance.Warmup 2>/dev/null | sed "s/^/  run $i /"
+        end=$(date +%s%N)
+        echo "  run $i jvm=$(( (end - start) / 1000000 ))ms"
+    done
+}
+
+measure "no class data sharing" -Xshare:off
+measure "default JDK archive" -Xshare:auto
+if [[ -f "$ARCHIVE" ]]; then
+    measure "AppCDS archive" -Xshare:auto "-XX:SharedArchiveFile=$ARCHIVE"
+else
+    echo "== AppCDS archive not found, build with: mvn package -Pappcds"
+fi
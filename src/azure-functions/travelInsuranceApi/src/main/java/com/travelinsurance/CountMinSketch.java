@@ -0,0 +1,71 @@
+package com.travelinsurance;
+
+/**
+ * Count-min sketch: approximate counts for an open-ended set of keys in fixed memory.
+ * An estimate is never below the true count; with conservative updates it overshoots only when every
+ * row collides with a more frequent key.
+ */
+public final class CountMinSketch {
+    private final int mask;
+    private final int[][] counts;
+
+    /**
+     * @param depth independent hash rows; more rows make overestimates less likely
+     * @param width counters per row, rounded up to a power of two; wider rows make overestimates smaller
+     */
+    public CountMinSketch(int depth, int width) {
+        int size = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.mask = size - 1;
+        this.counts = new int[depth][size];
+    }
+
+    /**
+     * Count one occurrence of the key and return its new estimate
+     */
+    public synchronized int add(Object key) {
+        int hash = key.hashCode();
+        int estimate = estimate(hash);
+        // Conservative update: only rows still at the minimum can be undercounting this key
+        for (int row = 0; row < counts.length; row++) {
+            int column = column(hash, row);
+            if (counts[row][column] == estimate && estimate < Integer.MAX_VALUE) {
+                counts[row][column]++;
+            }
+        }
+        return estimate + 1;
+    }
+
+    public synchronized int estimate(Object key) {
+        return estimate(key.hashCode());
+    }
+
+    /**
+     * Halve every counter, so old traffic fades and the counts follow the current peak
+     */
+    public synchronized void halve() {
+        for (int[] row : counts) {
+            for (int column = 0; column < row.length; column++) {
+                row[column] >>>= 1;
+            }
+        }
+    }
+
+    private int estimate(int hash) {
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < counts.length; row++) {
+            estimate = Math.min(estimate, counts[row][column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    private int column(int hash, int row) {
+        // A different seed per row, then the MurmurHash3 finalizer to spread it over the row
+        int h = hash + row * 0x9E3779B9;
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h & mask;
+    }
+}
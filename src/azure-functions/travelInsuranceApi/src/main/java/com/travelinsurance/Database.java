@@ -0,0 +1,88 @@
+
+package com.travelinsurance;
+
+import com.travelinsurance.metrics.FunctionMetrics;
+import com.travelinsurance.metrics.SqlTiming;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Shared MySQL connection pool for all functions on a worker
+ */
+public final class Database {
+    // Consumption plan workers handle few concurrent invocations, so keep the pool small
+    private static final int DEFAULT_POOL_SIZE = 5;
+    private static final long CONNECTION_TIMEOUT_MILLIS = 10_000;
+
+    private static volatile HikariDataSource dataSource;
+
+    private Database() {
+    }
+
+    /**
+     * Borrow a connection from the pool; closing it returns it to the pool.
+     * Acquire time and every statement run on it are recorded on the current function invocation.
+     */
+    public static Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection conn = getDataSource().getConnection();
+        FunctionMetrics.recordStage("connectionAcquire", System.nanoTime() - start);
+        return SqlTiming.wrap(conn);
+    }
+
+    /**
+     * Open the pool and its first connection ahead of traffic
+     */
+    public static void warmUp() throws SQLException {
+        try (Connection conn = getConnection()) {
+            conn.isValid(2);
+        }
+    }
+
+    /**
+     * Read a setting from system properties first, then app settings (environment)
+     */
+    static String setting(String name) {
+        String value = System.getProperty(name);
+        return value != null ? value : System.getenv(name);
+    }
+
+    private static HikariDataSource getDataSource() {
+        HikariDataSource current = dataSource;
+        if (current == null) {
+            synchronized (Database.class) {
+                current = dataSource;
+                if (current == null) {
+                    current = createDataSource();
+                    dataSource = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private static HikariDataSource createDataSource() {
+        String url = setting("MYSQL_CONNECTION_STRING");
+        if (url == null || url.isEmpty()) {
+            throw new IllegalStateException("MYSQL_CONNECTION_STRING is not configured");
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("travel-insurance-db");
+        config.setJdbcUrl(url);
+        config.setUsername(setting("MYSQL_USER"));
+        config.setPassword(setting("MYSQL_PASSWORD"));
+        String poolSize = setting("MYSQL_POOL_SIZE");
+        config.setMaximumPoolSize(poolSize != null ? Integer.parseInt(poolSize) : DEFAULT_POOL_SIZE);
+        config.setMinimumIdle(1);
+        config.setConnectionTimeout(CONNECTION_TIMEOUT_MILLIS);
+        // Let the MySQL driver reuse prepared statements across invocations
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", "250");
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        return new HikariDataSource(config);
+    }
+}
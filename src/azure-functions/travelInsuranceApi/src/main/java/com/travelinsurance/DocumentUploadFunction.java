@@ -1,24 +1,56 @@
 
 package com.travelinsurance;
 
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.models.BlobHttpHeaders;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.sas.BlobSasPermission;
+import com.azure.storage.blob.sas.BlobServiceSasSignatureValues;
+import com.azure.storage.common.sas.SasProtocol;
 import com.microsoft.azure.functions.*;
 import com.microsoft.azure.functions.annotation.*;
+import com.travelinsurance.metrics.FunctionMetrics;
+import com.travelinsurance.metrics.Stage;
 import org.json.JSONObject;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.sql.*;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.*;
 import java.util.Base64;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
 /**
  * Azure Functions with HTTP Trigger for Document Uploads
  */
 public class DocumentUploadFunction {
-    // Database connection info
-    private static final String DB_URL = System.getenv("MYSQL_CONNECTION_STRING");
-    private static final String DB_USER = System.getenv("MYSQL_USER");
-    private static final String DB_PASSWORD = System.getenv("MYSQL_PASSWORD");
     private static final String STORAGE_CONNECTION = System.getenv("STORAGE_CONNECTION_STRING");
+    private static final String CONTAINER_NAME = "travel-documents";
+    // Upload URLs are only valid long enough for the client to PUT the file
+    private static final long UPLOAD_URL_TTL_MINUTES = 15;
+    // A PUT started just before the URL expired may still be running, so completion gets some slack
+    private static final long COMPLETION_GRACE_MINUTES = 15;
+    private static final int PURGE_BATCH_SIZE = 50;
+    // Limits for direct uploads, checked on the stored blob since the SAS cannot enforce them
+    private static final long MAX_DOCUMENT_BYTES = 10L * 1024 * 1024;
+    private static final Set<String> ALLOWED_CONTENT_TYPES = Set.of("application/pdf", "image/jpeg", "image/png");
+    // Ids become blob path segments, so they must not be able to climb out of the caller's prefix
+    private static final Pattern PATH_SEGMENT = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final Pattern FILE_EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    static {
+        Warmup.startInBackground();
+    }
+
+    private static BlobContainerClient containerClient;
 
     /**
      * This function listens at endpoint "/api/documents/upload".
@@ -32,6 +64,10 @@ public class DocumentUploadFunction {
                 route = "documents/upload")
                 HttpRequestMessage<Optional<String>> request,
             final ExecutionContext context) {
+        return FunctionMetrics.invoke("uploadDocument", () -> handleUploadDocument(request, context));
+    }
+
+    private HttpResponseMessage handleUploadDocument(HttpRequestMessage<Optional<String>> request, ExecutionContext context) {
         
         context.getLogger().info("Java HTTP trigger processed a document upload request.");
 
@@ -57,25 +93,42 @@ public class DocumentUploadFunction {
             String fileName = requestJson.getString("fileName");
             String contentType = requestJson.optString("contentType", "application/octet-stream");
             
-            // Generate a unique filename
-            String fileExtension = fileName.substring(fileName.lastIndexOf("."));
-            String uniqueFilePath = userId + "/" + policyId + "/" + travelerId + "/" + 
-                                  documentType + "_" + System.currentTimeMillis() + fileExtension;
+            // Reject unsupported document types before storing anything
+            getDocumentUrlField(documentType);
             
-            // In a real application, this would upload to Azure Blob Storage
-            // Here, we'll simulate the upload and return a mock URL
-            String documentUrl = simulateFileUpload(fileData, uniqueFilePath);
+            // Decode once, then hash the content so identical files share one content-addressed blob
+            byte[] content = decodeBase64(fileData);
+            ContentDigest digest;
+            try (Stage hashing = FunctionMetrics.stage("hash")) {
+                digest = digest(content);
+            }
+            String blobPath = findContentBlobPath(digest.hash);
+            boolean deduplicated = blobPath != null;
             
-            // Store document info in the database
-            String documentId = storeDocumentInfo(travelerId, documentType, uniqueFilePath, fileName, contentType, fileData.length());
+            if (!deduplicated) {
+                blobPath = buildContentAddressedPath(digest.hash);
+                try (Stage upload = FunctionMetrics.stage("blobUpload")) {
+                    uploadContent(content, blobPath, contentType);
+                }
+            }
+            String documentUrl = getContainerClient().getBlobClient(blobPath).getBlobUrl();
             
-            // Update the traveler record with the document URL
-            updateTravelerDocumentUrl(travelerId, documentType, documentUrl);
+            // Take a reference on the blob, then store document info in the database
+            registerContentBlob(digest.hash, blobPath, digest.size, contentType);
+            String documentId;
+            try (Connection conn = Database.getConnection()) {
+                documentId = storeDocumentInfo(conn, travelerId, documentType, blobPath, fileName, contentType,
+                        (int) digest.size, digest.hash);
+                
+                // Update the traveler record with the document URL
+                updateTravelerDocumentUrl(conn, travelerId, documentType, documentUrl);
+            }
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("documentId", documentId);
             response.put("url", documentUrl);
+            response.put("deduplicated", deduplicated);
             
             return request
                     .createResponseBuilder(HttpStatus.OK)
@@ -83,6 +136,12 @@ public class DocumentUploadFunction {
                     .body(new JSONObject(response).toString())
                     .build();
                     
+        } catch (IllegalArgumentException e) {
+            // Unsupported document type or a payload that is not base64
+            return request
+                    .createResponseBuilder(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage())
+                    .build();
         } catch (Exception e) {
             context.getLogger().severe("Error processing document upload: " + e.getMessage());
             Map<String, Object> response = new HashMap<>();
@@ -98,67 +157,554 @@ public class DocumentUploadFunction {
     }
 
     /**
-     * Simulate uploading a file to storage
-     * In a real app, this would use the Azure Storage SDK
+     * This function listens at endpoint "/api/documents/upload-url".
+     * It returns a short-lived SAS URL so the client can PUT the file straight into Blob Storage.
      */
-    private String simulateFileUpload(String base64Data, String filePath) {
-        // In a real application, this method would:
-        // 1. Decode the base64 data
-        // 2. Upload the file to Azure Blob Storage
-        // 3. Return the URL
-        
-        // For this example, we'll just return a simulated URL
-        return "https://traveldocuments.blob.core.windows.net/travel-documents/" + filePath;
+    @FunctionName("createDocumentUploadUrl")
+    public HttpResponseMessage createUploadUrl(
+            @HttpTrigger(
+                name = "req",
+                methods = {HttpMethod.POST},
+                authLevel = AuthorizationLevel.FUNCTION,
+                route = "documents/upload-url")
+                HttpRequestMessage<Optional<String>> request,
+            final ExecutionContext context) {
+        return FunctionMetrics.invoke("createDocumentUploadUrl", () -> handleCreateDocumentUploadUrl(request, context));
+    }
+
+    private HttpResponseMessage handleCreateDocumentUploadUrl(HttpRequestMessage<Optional<String>> request, ExecutionContext context) {
+
+        context.getLogger().info("Java HTTP trigger processed a document upload URL request.");
+
+        String requestBody = request.getBody().orElse("");
+        if (requestBody.isEmpty()) {
+            return request
+                    .createResponseBuilder(HttpStatus.BAD_REQUEST)
+                    .body("Please provide document details in the request body")
+                    .build();
+        }
+
+        try {
+            JSONObject requestJson = new JSONObject(requestBody);
+
+            String userId = requestJson.getString("userId");
+            String policyId = requestJson.getString("policyId");
+            String travelerId = requestJson.getString("travelerId");
+            String documentType = requestJson.getString("documentType");
+            String fileName = requestJson.getString("fileName");
+            String contentType = requestJson.getString("contentType");
+
+            // Fail fast on unsupported document types, content types and unsafe ids instead of after the upload
+            getDocumentUrlField(documentType);
+            requirePathSegment("userId", userId);
+            requirePathSegment("policyId", policyId);
+            requirePathSegment("travelerId", travelerId);
+            if (!ALLOWED_CONTENT_TYPES.contains(mediaType(contentType))) {
+                throw new IllegalArgumentException("Unsupported content type: " + contentType);
+            }
+            purgeExpiredUploadSessions(context);
+
+            String blobPath = buildDocumentPath(userId, policyId, travelerId, documentType, fileName);
+            BlobClient blobClient = getContainerClient().getBlobClient(blobPath);
+
+            OffsetDateTime expiresAt = OffsetDateTime.now(ZoneOffset.UTC).plusMinutes(UPLOAD_URL_TTL_MINUTES);
+            // Completion trusts this record, not whatever the client sends back later
+            recordUploadSession(blobPath, userId, travelerId, documentType.toLowerCase(Locale.ROOT), fileName, expiresAt);
+            BlobSasPermission permission = new BlobSasPermission()
+                    .setCreatePermission(true)
+                    .setWritePermission(true);
+            BlobServiceSasSignatureValues sasValues = new BlobServiceSasSignatureValues(expiresAt, permission)
+                    .setProtocol(SasProtocol.HTTPS_ONLY);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("uploadUrl", blobClient.getBlobUrl() + "?" + blobClient.generateSas(sasValues));
+            response.put("blobPath", blobPath);
+            response.put("expiresAt", expiresAt.toString());
+            // Clients must send these headers with the PUT for a single-shot block blob upload. The SAS cannot
+            // enforce them, so completion checks the stored blob's type and size.
+            response.put("requiredHeaders", new JSONObject()
+                    .put("x-ms-blob-type", "BlockBlob")
+                    .put("x-ms-blob-content-type", contentType));
+            response.put("maxSizeBytes", MAX_DOCUMENT_BYTES);
+
+            return request
+                    .createResponseBuilder(HttpStatus.OK)
+                    .header("Content-Type", "application/json")
+                    .body(new JSONObject(response).toString())
+                    .build();
+
+        } catch (IllegalArgumentException e) {
+            return request
+                    .createResponseBuilder(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            context.getLogger().severe("Error creating document upload URL: " + e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", e.getMessage());
+
+            return request
+                    .createResponseBuilder(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .header("Content-Type", "application/json")
+                    .body(new JSONObject(response).toString())
+                    .build();
+        }
+    }
+
+    /**
+     * This function listens at endpoint "/api/documents/upload-complete".
+     * Called by the client once the direct upload has finished; only blob properties are read, never the content.
+     */
+    @FunctionName("completeDocumentUpload")
+    public HttpResponseMessage completeUpload(
+            @HttpTrigger(
+                name = "req",
+                methods = {HttpMethod.POST},
+                authLevel = AuthorizationLevel.FUNCTION,
+                route = "documents/upload-complete")
+                HttpRequestMessage<Optional<String>> request,
+            final ExecutionContext context) {
+        return FunctionMetrics.invoke("completeDocumentUpload", () -> handleCompleteDocumentUpload(request, context));
+    }
+
+    private HttpResponseMessage handleCompleteDocumentUpload(HttpRequestMessage<Optional<String>> request, ExecutionContext context) {
+
+        context.getLogger().info("Java HTTP trigger processed a document upload completion.");
+
+        String requestBody = request.getBody().orElse("");
+        if (requestBody.isEmpty()) {
+            return request
+                    .createResponseBuilder(HttpStatus.BAD_REQUEST)
+                    .body("Please provide upload details in the request body")
+                    .build();
+        }
+
+        try {
+            JSONObject requestJson = new JSONObject(requestBody);
+
+            String userId = requestJson.getString("userId");
+            String travelerId = requestJson.getString("travelerId");
+            String blobPath = requestJson.getString("blobPath");
+
+            // Only accept blobs this function issued an upload URL for, to the same user and traveler
+            UploadSession session = findUploadSession(blobPath);
+            if (session == null || !session.userId.equals(userId) || !session.travelerId.equals(travelerId)) {
+                return request
+                        .createResponseBuilder(HttpStatus.BAD_REQUEST)
+                        .body("Blob path does not match the traveler document")
+                        .build();
+            }
+
+            if (session.completionDeadline().isBefore(OffsetDateTime.now(ZoneOffset.UTC))) {
+                // The purge removes the session and any blob it left behind
+                return request
+                        .createResponseBuilder(HttpStatus.GONE)
+                        .body("Upload URL has expired")
+                        .build();
+            }
+
+            BlobClient blobClient = getContainerClient().getBlobClient(blobPath);
+            if (!blobClient.exists()) {
+                return request
+                        .createResponseBuilder(HttpStatus.NOT_FOUND)
+                        .body("Uploaded document not found")
+                        .build();
+            }
+            BlobProperties properties = blobClient.getProperties();
+            String rejection = checkUploadedBlob(properties.getBlobSize(), properties.getContentType());
+            if (rejection != null) {
+                // Nothing may keep a blob that broke the limits; the client has to ask for a new URL
+                blobClient.deleteIfExists();
+                try (Connection conn = Database.getConnection()) {
+                    claimUploadSession(conn, blobPath);
+                }
+                return request
+                        .createResponseBuilder(HttpStatus.BAD_REQUEST)
+                        .body(rejection)
+                        .build();
+            }
+            String documentUrl = blobClient.getBlobUrl();
+
+            // Claim the session and record the document together, so a failed insert leaves the upload completable
+            String documentId;
+            try (Connection conn = Database.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    // Claiming the session makes a repeated completion a no-op rather than a second document row
+                    if (!claimUploadSession(conn, blobPath)) {
+                        conn.rollback();
+                        return request
+                                .createResponseBuilder(HttpStatus.CONFLICT)
+                                .body("Upload has already been completed")
+                                .build();
+                    }
+                    documentId = storeDocumentInfo(conn, session.travelerId, session.documentType, blobPath,
+                            session.fileName, mediaType(properties.getContentType()), (int) properties.getBlobSize(), null);
+                    updateTravelerDocumentUrl(conn, session.travelerId, session.documentType, documentUrl);
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("documentId", documentId);
+            response.put("url", documentUrl);
+
+            return request
+                    .createResponseBuilder(HttpStatus.OK)
+                    .header("Content-Type", "application/json")
+                    .body(new JSONObject(response).toString())
+                    .build();
+
+        } catch (Exception e) {
+            context.getLogger().severe("Error completing document upload: " + e.getMessage());
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", e.getMessage());
+
+            return request
+                    .createResponseBuilder(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .header("Content-Type", "application/json")
+                    .body(new JSONObject(response).toString())
+                    .build();
+        }
+    }
+
+    /**
+     * Build the storage path for a traveler document
+     */
+    private String buildDocumentPath(String userId, String policyId, String travelerId,
+                                     String documentType, String fileName) {
+        return userId + "/" + policyId + "/" + travelerId + "/" +
+               documentType.toLowerCase(Locale.ROOT) + "_" + System.currentTimeMillis() + fileExtension(fileName);
+    }
+
+    /**
+     * Reject ids that could not safely be used as a single blob path segment
+     */
+    static void requirePathSegment(String field, String value) {
+        if (!PATH_SEGMENT.matcher(value).matches()) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    /**
+     * Why an uploaded blob breaks the direct-upload limits, or null when it is acceptable
+     */
+    static String checkUploadedBlob(long size, String contentType) {
+        if (size <= 0 || size > MAX_DOCUMENT_BYTES) {
+            return "Document must be between 1 and " + MAX_DOCUMENT_BYTES + " bytes, was " + size;
+        }
+        if (!ALLOWED_CONTENT_TYPES.contains(mediaType(contentType))) {
+            return "Unsupported content type: " + contentType;
+        }
+        return null;
+    }
+
+    /**
+     * A Content-Type value without its parameters, lower-cased; empty for null
+     */
+    static String mediaType(String contentType) {
+        if (contentType == null) {
+            return "";
+        }
+        int semicolon = contentType.indexOf(';');
+        return (semicolon >= 0 ? contentType.substring(0, semicolon) : contentType).trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The file name's extension, such as ".pdf", or an empty string when it has no usable one
+     */
+    static String fileExtension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot < 0) {
+            return "";
+        }
+        String extension = fileName.substring(dot);
+        return FILE_EXTENSION.matcher(extension).matches() ? extension.toLowerCase(Locale.ROOT) : "";
+    }
+
+    /**
+     * Lazily create the blob container client, shared across invocations on this worker
+     */
+    private static synchronized BlobContainerClient getContainerClient() {
+        if (containerClient == null) {
+            if (STORAGE_CONNECTION == null || STORAGE_CONNECTION.isEmpty()) {
+                throw new IllegalStateException("STORAGE_CONNECTION_STRING is not configured");
+            }
+            containerClient = new BlobServiceClientBuilder()
+                    .connectionString(STORAGE_CONNECTION)
+                    .buildClient()
+                    .getBlobContainerClient(CONTAINER_NAME);
+        }
+        return containerClient;
+    }
+
+    /**
+     * Decode a base64 payload, accepting MIME line breaks and the URL-safe alphabet as well as plain base64
+     */
+    static byte[] decodeBase64(String base64Data) {
+        StringBuilder compact = new StringBuilder(base64Data.length());
+        boolean urlSafe = false;
+        for (int i = 0; i < base64Data.length(); i++) {
+            char c = base64Data.charAt(i);
+            if (Character.isWhitespace(c)) {
+                continue;
+            }
+            urlSafe |= c == '-' || c == '_';
+            compact.append(c);
+        }
+        Base64.Decoder decoder = urlSafe ? Base64.getUrlDecoder() : Base64.getDecoder();
+        return decoder.decode(compact.toString());
+    }
+
+    /**
+     * SHA-256 and size of the decoded content
+     */
+    static ContentDigest digest(byte[] content) throws NoSuchAlgorithmException {
+        byte[] sha256 = MessageDigest.getInstance("SHA-256").digest(content);
+        StringBuilder hash = new StringBuilder(64);
+        for (byte b : sha256) {
+            hash.append(String.format("%02x", b));
+        }
+        return new ContentDigest(hash.toString(), content.length);
     }
     
     /**
-     * Store document information in the database
+     * Upload decoded content to its content-addressed blob
      */
-    private String storeDocumentInfo(String travelerId, String documentType, String filePath, 
-                                  String originalFilename, String contentType, int fileSize) throws SQLException {
-        String documentId = UUID.randomUUID().toString();
+    private void uploadContent(byte[] content, String blobPath, String contentType) throws IOException {
+        BlobClient blobClient = getContainerClient().getBlobClient(blobPath);
+        try (InputStream in = new ByteArrayInputStream(content)) {
+            // Same hash means same bytes, so overwriting a concurrent upload is harmless
+            blobClient.upload(in, content.length, true);
+        }
+        blobClient.setHttpHeaders(new BlobHttpHeaders().setContentType(contentType));
+    }
+    
+    /**
+     * Content-addressed blob path, fanned out by hash prefix
+     */
+    private String buildContentAddressedPath(String contentHash) {
+        return "sha256/" + contentHash.substring(0, 2) + "/" + contentHash;
+    }
+    
+    /**
+     * Look up an existing blob for the given content hash
+     */
+    private String findContentBlobPath(String contentHash) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            String sql = "SELECT file_path FROM document_blobs WHERE content_hash = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, contentHash);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return rs.getString("file_path");
+                    }
+                }
+            }
+        }
         
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "INSERT INTO document_uploads (id, traveler_id, document_type, file_path, original_filename, content_type, file_size) " +
-                        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        return null;
+    }
+    
+    /**
+     * Record the blob or take another reference on it in a single statement
+     */
+    private void registerContentBlob(String contentHash, String filePath, long fileSize, String contentType) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            String sql = "INSERT INTO document_blobs (content_hash, file_path, file_size, content_type, ref_count) " +
+                        "VALUES (?, ?, ?, ?, 1) ON DUPLICATE KEY UPDATE ref_count = ref_count + 1";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, documentId);
-                stmt.setString(2, travelerId);
-                stmt.setString(3, documentType);
-                stmt.setString(4, filePath);
-                stmt.setString(5, originalFilename);
-                stmt.setString(6, contentType);
-                stmt.setInt(7, fileSize);
+                stmt.setString(1, contentHash);
+                stmt.setString(2, filePath);
+                stmt.setLong(3, fileSize);
+                stmt.setString(4, contentType);
                 
                 stmt.executeUpdate();
             }
         }
-        
-        return documentId;
     }
     
     /**
-     * Update the traveler record with the document URL
+     * Remember who an upload URL was issued to, keyed by the blob it points at
      */
-    private void updateTravelerDocumentUrl(String travelerId, String documentType, String documentUrl) throws SQLException {
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            // Determine which field to update based on document type
-            String fieldName;
-            if ("passport".equalsIgnoreCase(documentType)) {
-                fieldName = "passport_document_url";
-            } else if ("visa".equalsIgnoreCase(documentType)) {
-                fieldName = "visa_document_url";
-            } else {
-                throw new IllegalArgumentException("Invalid document type: " + documentType);
+    private void recordUploadSession(String blobPath, String userId, String travelerId, String documentType,
+                                     String fileName, OffsetDateTime expiresAt) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            String sql = "INSERT INTO document_upload_sessions (blob_path, user_id, traveler_id, document_type, original_filename, expires_at) " +
+                        "VALUES (?, ?, ?, ?, ?, ?)";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, blobPath);
+                stmt.setString(2, userId);
+                stmt.setString(3, travelerId);
+                stmt.setString(4, documentType);
+                stmt.setString(5, fileName);
+                stmt.setTimestamp(6, Timestamp.from(expiresAt.toInstant()));
+                
+                stmt.executeUpdate();
+            }
+        }
+    }
+    
+    /**
+     * Look up the upload URL issued for a blob path
+     */
+    private UploadSession findUploadSession(String blobPath) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            String sql = "SELECT user_id, traveler_id, document_type, original_filename, expires_at FROM document_upload_sessions WHERE blob_path = ?";
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                stmt.setString(1, blobPath);
+                
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return new UploadSession(rs.getString("user_id"), rs.getString("traveler_id"),
+                                rs.getString("document_type"), rs.getString("original_filename"),
+                                rs.getTimestamp("expires_at").toInstant().atOffset(ZoneOffset.UTC));
+                    }
+                }
             }
+        }
+        
+        return null;
+    }
+    
+    /**
+     * Consume an upload session; false when a concurrent or earlier completion already took it
+     */
+    private boolean claimUploadSession(Connection conn, String blobPath) throws SQLException {
+        String sql = "DELETE FROM document_upload_sessions WHERE blob_path = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, blobPath);
             
-            String sql = "UPDATE traveler_info SET " + fieldName + " = ? WHERE id = ?";
+            return stmt.executeUpdate() == 1;
+        }
+    }
+    
+    /**
+     * Drop a batch of sessions past their completion deadline, with any blob a client uploaded but never completed.
+     * Runs when upload URLs are issued, so the table stays small without a separate timer.
+     */
+    private void purgeExpiredUploadSessions(ExecutionContext context) {
+        Timestamp cutoff = Timestamp.from(OffsetDateTime.now(ZoneOffset.UTC)
+                .minusMinutes(COMPLETION_GRACE_MINUTES).toInstant());
+        try (Connection conn = Database.getConnection()) {
+            List<String> expired = new ArrayList<>();
+            String sql = "SELECT blob_path FROM document_upload_sessions WHERE expires_at < ? LIMIT " + PURGE_BATCH_SIZE;
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, documentUrl);
-                stmt.setString(2, travelerId);
+                stmt.setTimestamp(1, cutoff);
                 
-                stmt.executeUpdate();
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        expired.add(rs.getString("blob_path"));
+                    }
+                }
             }
+            for (String blobPath : expired) {
+                getContainerClient().getBlobClient(blobPath).deleteIfExists();
+                claimUploadSession(conn, blobPath);
+            }
+        } catch (Exception e) {
+            // Issuing the URL matters more; the next request purges again
+            context.getLogger().warning("Could not purge expired upload sessions: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Store document information in the database
+     */
+    private String storeDocumentInfo(Connection conn, String travelerId, String documentType, String filePath, 
+                                  String originalFilename, String contentType, int fileSize,
+                                  String contentHash) throws SQLException {
+        String documentId = UUID.randomUUID().toString();
+        
+        String sql = "INSERT INTO document_uploads (id, traveler_id, document_type, file_path, original_filename, content_type, file_size, content_hash) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, documentId);
+            stmt.setString(2, travelerId);
+            stmt.setString(3, documentType);
+            stmt.setString(4, filePath);
+            stmt.setString(5, originalFilename);
+            stmt.setString(6, contentType);
+            stmt.setInt(7, fileSize);
+            stmt.setString(8, contentHash);
+            
+            stmt.executeUpdate();
+        }
+        
+        return documentId;
+    }
+    
+    /**
+     * Update the traveler record with the document URL
+     */
+    private void updateTravelerDocumentUrl(Connection conn, String travelerId, String documentType,
+                                           String documentUrl) throws SQLException {
+        // Determine which field to update based on document type
+        String fieldName = getDocumentUrlField(documentType);
+        
+        String sql = "UPDATE traveler_info SET " + fieldName + " = ? WHERE id = ?";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, documentUrl);
+            stmt.setString(2, travelerId);
+            
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Map a document type to its traveler_info URL column
+     */
+    private static String getDocumentUrlField(String documentType) {
+        if ("passport".equalsIgnoreCase(documentType)) {
+            return "passport_document_url";
+        } else if ("visa".equalsIgnoreCase(documentType)) {
+            return "visa_document_url";
+        }
+        throw new IllegalArgumentException("Invalid document type: " + documentType);
+    }
+
+    /**
+     * What an upload URL was issued for
+     */
+    private static final class UploadSession {
+        private final String userId;
+        private final String travelerId;
+        private final String documentType;
+        private final String fileName;
+        private final OffsetDateTime expiresAt;
+
+        private UploadSession(String userId, String travelerId, String documentType, String fileName,
+                              OffsetDateTime expiresAt) {
+            this.userId = userId;
+            this.travelerId = travelerId;
+            this.documentType = documentType;
+            this.fileName = fileName;
+            this.expiresAt = expiresAt;
+        }
+
+        private OffsetDateTime completionDeadline() {
+            return expiresAt.plusMinutes(COMPLETION_GRACE_MINUTES);
+        }
+    }
+
+    /**
+     * SHA-256 and decoded size of an uploaded document
+     */
+    static final class ContentDigest {
+        final String hash;
+        final long size;
+
+        private ContentDigest(String hash, long size) {
+            this.hash = hash;
+            this.size = size;
         }
     }
 }
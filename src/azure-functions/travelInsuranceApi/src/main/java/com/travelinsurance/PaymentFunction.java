@@ -3,6 +3,7 @@ package com.travelinsurance;
 
 import com.microsoft.azure.functions.*;
 import com.microsoft.azure.functions.annotation.*;
+import com.travelinsurance.metrics.FunctionMetrics;
 import org.json.JSONObject;
 
 import java.sql.*;
@@ -17,6 +18,10 @@ public class PaymentFunction {
     private static final String DB_USER = System.getenv("MYSQL_USER");
     private static final String DB_PASSWORD = System.getenv("MYSQL_PASSWORD");
 
+    static {
+        Warmup.startInBackground();
+    }
+
     /**
      * This function listens at endpoint "/api/payment/process".
      */
@@ -29,6 +34,10 @@ public class PaymentFunction {
                 route = "payment/process")
                 HttpRequestMessage<Optional<String>> request,
             final ExecutionContext context) {
+        return FunctionMetrics.invoke("processPayment", () -> handleProcessPayment(request, context));
+    }
+
+    private HttpResponseMessage handleProcessPayment(HttpRequestMessage<Optional<String>> request, ExecutionContext context) {
         
         context.getLogger().info("Java HTTP trigger processed a payment request.");
 
@@ -0,0 +1,164 @@
+
+package com.travelinsurance;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * Snapshot of the active insurance plans with their exclusions, pros, cons and benefits.
+ * The catalog changes rarely, so one snapshot per worker is reused until it expires.
+ */
+public final class PlanCatalog {
+    private static final long CATALOG_TTL_MILLIS = 5 * 60_000;
+
+    private static volatile PlanCatalog current;
+
+    private final List<Map<String, Object>> plans;
+    private final Map<String, Map<String, Object>> plansById;
+    private final Map<String, List<Map<String, Object>>> benefitsByPlanId;
+    private final long loadedAt;
+
+    private PlanCatalog(List<Map<String, Object>> plans,
+                        Map<String, List<Map<String, Object>>> benefitsByPlanId,
+                        long loadedAt) {
+        this.plans = Collections.unmodifiableList(plans);
+        Map<String, Map<String, Object>> byId = new HashMap<>();
+        for (Map<String, Object> plan : plans) {
+            byId.put((String) plan.get("id"), plan);
+        }
+        this.plansById = byId;
+        this.benefitsByPlanId = benefitsByPlanId;
+        this.loadedAt = loadedAt;
+    }
+
+    /**
+     * Get the current catalog, reloading it from the database once it has expired
+     */
+    public static PlanCatalog get() throws SQLException {
+        PlanCatalog catalog = current;
+        if (catalog == null || catalog.isExpired()) {
+            synchronized (PlanCatalog.class) {
+                catalog = current;
+                if (catalog == null || catalog.isExpired()) {
+                    catalog = load();
+                    current = catalog;
+                }
+            }
+        }
+        return catalog;
+    }
+
+    /**
+     * Build a catalog from already loaded plans and benefits
+     */
+    public static PlanCatalog of(List<Map<String, Object>> plans,
+                                 Map<String, List<Map<String, Object>>> benefitsByPlanId) {
+        return new PlanCatalog(new ArrayList<>(plans), benefitsByPlanId, System.currentTimeMillis());
+    }
+
+    public List<Map<String, Object>> getPlans() {
+        return plans;
+    }
+
+    public Map<String, Object> getPlan(String planId) {
+        return plansById.get(planId);
+    }
+
+    public Map<String, List<Map<String, Object>>> getBenefitsByPlanId() {
+        return benefitsByPlanId;
+    }
+
+    public List<Map<String, Object>> getBenefits(String planId) {
+        return benefitsByPlanId.getOrDefault(planId, Collections.emptyList());
+    }
+
+    /**
+     * When this snapshot is due to be reloaded, in epoch millis
+     */
+    public long expiresAt() {
+        return loadedAt + CATALOG_TTL_MILLIS;
+    }
+
+    private boolean isExpired() {
+        return System.currentTimeMillis() > expiresAt();
+    }
+
+    /**
+     * Load the whole catalog with one query per table instead of three queries per plan
+     */
+    private static PlanCatalog load() throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            Map<String, List<String>> exclusions = getValuesByPlanId(conn, "SELECT plan_id, exclusion FROM plan_exclusions", "exclusion");
+            Map<String, List<String>> pros = getValuesByPlanId(conn, "SELECT plan_id, pro FROM plan_pros", "pro");
+            Map<String, List<String>> cons = getValuesByPlanId(conn, "SELECT plan_id, con FROM plan_cons", "con");
+
+            List<Map<String, Object>> plans = new ArrayList<>();
+            String sql = "SELECT * FROM insurance_plans WHERE is_active = TRUE";
+            try (PreparedStatement stmt = conn.prepareStatement(sql);
+                 ResultSet rs = stmt.executeQuery()) {
+
+                while (rs.next()) {
+                    Map<String, Object> plan = new HashMap<>();
+                    String planId = rs.getString("id");
+
+                    plan.put("id", planId);
+                    plan.put("name", rs.getString("name"));
+                    plan.put("provider", rs.getString("provider"));
+                    plan.put("base_price", rs.getDouble("base_price"));
+                    plan.put("coverage_limit", rs.getString("coverage_limit"));
+                    plan.put("rating", rs.getDouble("rating"));
+                    plan.put("terms", rs.getString("terms"));
+                    plan.put("badge", rs.getString("badge"));
+                    plan.put("logo_url", rs.getString("logo_url"));
+                    plan.put("exclusions", exclusions.getOrDefault(planId, Collections.emptyList()));
+                    plan.put("pros", pros.getOrDefault(planId, Collections.emptyList()));
+                    plan.put("cons", cons.getOrDefault(planId, Collections.emptyList()));
+
+                    plans.add(Collections.unmodifiableMap(plan));
+                }
+            }
+
+            return new PlanCatalog(plans, getBenefitsByPlanId(conn), System.currentTimeMillis());
+        }
+    }
+
+    private static Map<String, List<String>> getValuesByPlanId(Connection conn, String sql, String column) throws SQLException {
+        Map<String, List<String>> valuesByPlanId = new HashMap<>();
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                valuesByPlanId
+                    .computeIfAbsent(rs.getString("plan_id"), k -> new ArrayList<>())
+                    .add(rs.getString(column));
+            }
+        }
+
+        return valuesByPlanId;
+    }
+
+    private static Map<String, List<Map<String, Object>>> getBenefitsByPlanId(Connection conn) throws SQLException {
+        Map<String, List<Map<String, Object>>> benefitsByPlanId = new HashMap<>();
+
+        String sql = "SELECT * FROM insurance_benefits";
+        try (PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                String planId = rs.getString("plan_id");
+
+                Map<String, Object> benefit = new HashMap<>();
+                benefit.put("name", rs.getString("name"));
+                benefit.put("description", rs.getString("description"));
+                benefit.put("limit", rs.getString("benefit_limit"));
+                benefit.put("isHighlighted", rs.getBoolean("is_highlighted"));
+
+                benefitsByPlanId
+                    .computeIfAbsent(planId, k -> new ArrayList<>())
+                    .add(Collections.unmodifiableMap(benefit));
+            }
+        }
+
+        return benefitsByPlanId;
+    }
+}
@@ -0,0 +1,65 @@
+package com.travelinsurance;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The most requested quote combinations on this worker. Every request is counted in a count-min sketch;
+ * the k combinations with the highest estimates are kept as candidates for pre-warming.
+ */
+public final class PopularQuotes {
+    private final int k;
+    private final CountMinSketch sketch;
+    private final Map<QuoteRequest, Integer> top = new HashMap<>();
+
+    public PopularQuotes(int k, CountMinSketch sketch) {
+        this.k = k;
+        this.sketch = sketch;
+    }
+
+    public synchronized void record(QuoteRequest request) {
+        int estimate = sketch.add(request);
+        if (top.containsKey(request) || top.size() < k) {
+            top.put(request, estimate);
+            return;
+        }
+
+        // k is small, so a scan for the least popular candidate is cheaper than keeping a heap in step
+        QuoteRequest least = null;
+        int leastEstimate = Integer.MAX_VALUE;
+        for (Map.Entry<QuoteRequest, Integer> candidate : top.entrySet()) {
+            if (candidate.getValue() < leastEstimate) {
+                least = candidate.getKey();
+                leastEstimate = candidate.getValue();
+            }
+        }
+        if (estimate > leastEstimate) {
+            top.remove(least);
+            top.put(request, estimate);
+        }
+    }
+
+    /**
+     * The current candidates, most requested first
+     */
+    public synchronized List<QuoteRequest> top() {
+        List<Map.Entry<QuoteRequest, Integer>> candidates = new ArrayList<>(top.entrySet());
+        candidates.sort(Map.Entry.<QuoteRequest, Integer>comparingByValue().reversed());
+        List<QuoteRequest> requests = new ArrayList<>(candidates.size());
+        for (Map.Entry<QuoteRequest, Integer> candidate : candidates) {
+            requests.add(candidate.getKey());
+        }
+        return requests;
+    }
+
+    /**
+     * Halve all counts, so combinations that stopped being requested give way to the current ones
+     */
+    public synchronized void decay() {
+        sketch.halve();
+        top.replaceAll((request, estimate) -> estimate / 2);
+        top.values().removeIf(estimate -> estimate == 0);
+    }
+}
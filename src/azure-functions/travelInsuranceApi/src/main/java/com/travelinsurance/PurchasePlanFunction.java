@@ -3,6 +3,7 @@ package com.travelinsurance;
 
 import com.microsoft.azure.functions.*;
 import com.microsoft.azure.functions.annotation.*;
+import com.travelinsurance.metrics.FunctionMetrics;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -14,10 +15,10 @@ import java.util.*;
  * Azure Functions with HTTP Trigger for Purchasing an Insurance Plan
  */
 public class PurchasePlanFunction {
-    // Database connection info - this would normally come from app settings
-    private static final String DB_URL = System.getenv("MYSQL_CONNECTION_STRING");
-    private static final String DB_USER = System.getenv("MYSQL_USER");
-    private static final String DB_PASSWORD = System.getenv("MYSQL_PASSWORD");
+
+    static {
+        Warmup.startInBackground();
+    }
 
     /**
      * This function listens at endpoint "/api/purchase".
@@ -31,6 +32,10 @@ public class PurchasePlanFunction {
                 route = "purchase")
                 HttpRequestMessage<Optional<String>> request,
             final ExecutionContext context) {
+        return FunctionMetrics.invoke("purchasePlan", () -> handlePurchasePlan(request, context));
+    }
+
+    private HttpResponseMessage handlePurchasePlan(HttpRequestMessage<Optional<String>> request, ExecutionContext context) {
         
         context.getLogger().info("Java HTTP trigger processed a request to purchase an insurance plan.");
 
@@ -61,7 +66,7 @@ public class PurchasePlanFunction {
                                     String.format("%04d", new Random().nextInt(10000));
             
             // Start database transaction
-            conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD);
+            conn = Database.getConnection();
             conn.setAutoCommit(false);
             
             // 1. Create the travel policy record
@@ -125,88 +130,85 @@ public class PurchasePlanFunction {
     private String createTravelPolicy(Connection conn, String userId, String planId, String referenceNumber,
                                     JSONObject travelDetails, double price, String paymentMethod,
                                     String paymentReference) throws SQLException {
-        String sql = "INSERT INTO travel_policies (user_id, plan_id, reference_number, " +
+        String sql = "INSERT INTO travel_policies (id, user_id, plan_id, reference_number, " +
                     "coverage_type, origin_country, destination_country, trip_type, " +
                     "start_date, end_date, cover_type, total_price, status, " +
                     "payment_status, payment_method, payment_reference) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
-        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, userId);
-            stmt.setString(2, planId);
-            stmt.setString(3, referenceNumber);
-            stmt.setString(4, travelDetails.getString("coverageType"));
-            stmt.setString(5, travelDetails.getString("originCountry"));
-            stmt.setString(6, travelDetails.getString("destinationCountry"));
-            stmt.setString(7, travelDetails.getString("tripType"));
-            stmt.setDate(8, java.sql.Date.valueOf(travelDetails.getString("startDate")));
-            stmt.setDate(9, java.sql.Date.valueOf(travelDetails.getString("endDate")));
-            stmt.setString(10, travelDetails.getString("coverType"));
-            stmt.setDouble(11, price);
-            stmt.setString(12, "Active");
-            stmt.setString(13, "Completed"); // Assume payment is successful
-            stmt.setString(14, paymentMethod);
-            stmt.setString(15, paymentReference);
+        // The id column has no default, so the key is generated here
+        String policyId = UUID.randomUUID().toString();
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, policyId);
+            stmt.setString(2, userId);
+            stmt.setString(3, planId);
+            stmt.setString(4, referenceNumber);
+            stmt.setString(5, travelDetails.getString("coverageType"));
+            stmt.setString(6, travelDetails.getString("originCountry"));
+            stmt.setString(7, travelDetails.getString("destinationCountry"));
+            stmt.setString(8, travelDetails.getString("tripType"));
+            stmt.setDate(9, java.sql.Date.valueOf(travelDetails.getString("startDate")));
+            stmt.setDate(10, java.sql.Date.valueOf(travelDetails.getString("endDate")));
+            stmt.setString(11, travelDetails.getString("coverType"));
+            stmt.setDouble(12, price);
+            stmt.setString(13, "Active");
+            stmt.setString(14, "Completed"); // Assume payment is successful
+            stmt.setString(15, paymentMethod);
+            stmt.setString(16, paymentReference);
             
             stmt.executeUpdate();
-            
-            try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    return generatedKeys.getString(1);
-                } else {
-                    throw new SQLException("Creating policy failed, no ID obtained.");
-                }
-            }
         }
+        return policyId;
     }
 
     /**
      * Create a traveler info record
      */
     private void createTravelerInfo(Connection conn, String policyId, JSONObject traveler) throws SQLException {
-        String sql = "INSERT INTO traveler_info (policy_id, first_name, last_name, date_of_birth, " +
+        String sql = "INSERT INTO traveler_info (id, policy_id, first_name, last_name, date_of_birth, " +
                     "email, phone, emergency_contact, address, passport_number, " +
                     "passport_issue_date, passport_expiry_date, passport_nationality, " +
                     "beneficiary_name, beneficiary_relationship, beneficiary_contact) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
         
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, policyId);
-            stmt.setString(2, traveler.getString("firstName"));
-            stmt.setString(3, traveler.getString("lastName"));
-            stmt.setDate(4, java.sql.Date.valueOf(traveler.getString("dateOfBirth")));
+            stmt.setString(1, UUID.randomUUID().toString());
+            stmt.setString(2, policyId);
+            stmt.setString(3, traveler.getString("firstName"));
+            stmt.setString(4, traveler.getString("lastName"));
+            stmt.setDate(5, java.sql.Date.valueOf(traveler.getString("dateOfBirth")));
             
-            stmt.setString(5, traveler.optString("email", null));
-            stmt.setString(6, traveler.optString("phone", null));
-            stmt.setString(7, traveler.optString("emergencyContact", null));
-            stmt.setString(8, traveler.optString("address", null));
+            stmt.setString(6, traveler.optString("email", null));
+            stmt.setString(7, traveler.optString("phone", null));
+            stmt.setString(8, traveler.optString("emergencyContact", null));
+            stmt.setString(9, traveler.optString("address", null));
             
             // Handle passport info if present
             JSONObject passport = traveler.optJSONObject("passport");
             if (passport != null) {
-                stmt.setString(9, passport.optString("number", null));
+                stmt.setString(10, passport.optString("number", null));
                 String issueDate = passport.optString("issueDate", null);
-                stmt.setDate(10, issueDate != null ? java.sql.Date.valueOf(issueDate) : null);
+                stmt.setDate(11, issueDate != null ? java.sql.Date.valueOf(issueDate) : null);
                 String expiryDate = passport.optString("expiryDate", null);
-                stmt.setDate(11, expiryDate != null ? java.sql.Date.valueOf(expiryDate) : null);
-                stmt.setString(12, passport.optString("nationality", null));
+                stmt.setDate(12, expiryDate != null ? java.sql.Date.valueOf(expiryDate) : null);
+                stmt.setString(13, passport.optString("nationality", null));
             } else {
-                stmt.setNull(9, Types.VARCHAR);
-                stmt.setNull(10, Types.DATE);
+                stmt.setNull(10, Types.VARCHAR);
                 stmt.setNull(11, Types.DATE);
-                stmt.setNull(12, Types.VARCHAR);
+                stmt.setNull(12, Types.DATE);
+                stmt.setNull(13, Types.VARCHAR);
             }
             
             // Handle beneficiary info if present
             JSONObject beneficiary = traveler.optJSONObject("beneficiary");
             if (beneficiary != null) {
-                stmt.setString(13, beneficiary.optString("name", null));
-                stmt.setString(14, beneficiary.optString("relationship", null));
-                stmt.setString(15, beneficiary.optString("contactDetails", null));
+                stmt.setString(14, beneficiary.optString("name", null));
+                stmt.setString(15, beneficiary.optString("relationship", null));
+                stmt.setString(16, beneficiary.optString("contactDetails", null));
             } else {
-                stmt.setNull(13, Types.VARCHAR);
                 stmt.setNull(14, Types.VARCHAR);
                 stmt.setNull(15, Types.VARCHAR);
+                stmt.setNull(16, Types.VARCHAR);
             }
             
             stmt.executeUpdate();
@@ -218,9 +220,9 @@ public class PurchasePlanFunction {
      */
     private void createPaymentTransaction(Connection conn, String policyId, String userId, 
                                         double amount, String paymentMethod, String paymentReference) throws SQLException {
-        String sql = "INSERT INTO payment_transactions (policy_id, user_id, amount, currency, " +
+        String sql = "INSERT INTO payment_transactions (id, policy_id, user_id, amount, currency, " +
                     "payment_method, status, reference) " +
-                    "VALUES (?, ?, ?, ?, ?, ?, ?)";
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
         
         if (paymentReference == null || paymentReference.isEmpty()) {
             paymentReference = "PMT-" + System.currentTimeMillis() + "-" + 
@@ -228,13 +230,14 @@ public class PurchasePlanFunction {
         }
         
         try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, policyId);
-            stmt.setString(2, userId);
-            stmt.setDouble(3, amount);
-            stmt.setString(4, "USD"); // Default currency
-            stmt.setString(5, paymentMethod);
-            stmt.setString(6, "Completed"); // Assume payment is successful
-            stmt.setString(7, paymentReference);
+            stmt.setString(1, UUID.randomUUID().toString());
+            stmt.setString(2, policyId);
+            stmt.setString(3, userId);
+            stmt.setDouble(4, amount);
+            stmt.setString(5, "USD"); // Default currency
+            stmt.setString(6, paymentMethod);
+            stmt.setString(7, "Completed"); // Assume payment is successful
+            stmt.setString(8, paymentReference);
             
             stmt.executeUpdate();
         }
@@ -0,0 +1,75 @@
+
+package com.travelinsurance;
+
+import java.util.*;
+
+/**
+ * Pricing tables and price calculation for insurance quotes
+ */
+public final class QuotePricing {
+    // Regional loading on the base price; other coverage types use the base price
+    private static final Map<String, Double> COVERAGE_MULTIPLIERS = Map.of(
+            "Worldwide", 1.5,
+            "Schengen", 1.2);
+
+    private static final String ANNUAL_TRIP_TYPE = "Annual Multi-Trips";
+    private static final double ANNUAL_MULTIPLIER = 4; // Annual plans cost more
+    private static final double MAX_DURATION_MULTIPLIER = 10.0; // Cap at 10x for very long trips
+
+    private QuotePricing() {
+    }
+
+    /**
+     * Price multiplier for a trip. It does not depend on the plan, so it is computed once per request.
+     */
+    public static double priceMultiplier(String coverageType, String tripType, String coverType,
+                                         long tripDays, int numTravelers) {
+        // Adjust for coverage type
+        double priceMultiplier = COVERAGE_MULTIPLIERS.getOrDefault(coverageType, 1.0);
+
+        // Adjust for trip type
+        if (ANNUAL_TRIP_TYPE.equals(tripType)) {
+            priceMultiplier *= ANNUAL_MULTIPLIER;
+        } else {
+            // Adjust for trip duration for single trips
+            priceMultiplier *= Math.min(tripDays / 7.0, MAX_DURATION_MULTIPLIER);
+        }
+
+        // Adjust for cover type and number of travelers
+        if ("Family".equals(coverType)) {
+            priceMultiplier *= Math.min(1.8, 1 + (numTravelers * 0.2)); // Family discount
+        } else if ("Group".equals(coverType)) {
+            priceMultiplier *= Math.min(2.5, 1 + (numTravelers * 0.25)); // Group rate
+        } else {
+            priceMultiplier *= numTravelers; // Individual: direct multiplication
+        }
+
+        return priceMultiplier;
+    }
+
+    /**
+     * Price every plan in the catalog for a trip
+     */
+    public static List<Map<String, Object>> calculatePlans(PlanCatalog catalog, String coverageType, String tripType,
+                                                           String coverType, long tripDays, int numTravelers) {
+        double priceMultiplier = priceMultiplier(coverageType, tripType, coverType, tripDays, numTravelers);
+        List<Map<String, Object>> calculatedPlans = new ArrayList<>(catalog.getPlans().size());
+
+        for (Map<String, Object> plan : catalog.getPlans()) {
+            // Calculate the final price
+            double basePrice = ((Number) plan.get("base_price")).doubleValue();
+            double calculatedPrice = Math.round(basePrice * priceMultiplier);
+
+            // Create a copy of the plan with the calculated price
+            Map<String, Object> calculatedPlan = new HashMap<>(plan);
+            calculatedPlan.put("price", calculatedPrice);
+
+            // Add benefits to the plan
+            calculatedPlan.put("benefits", catalog.getBenefits((String) plan.get("id")));
+
+            calculatedPlans.add(calculatedPlan);
+        }
+
+        return calculatedPlans;
+    }
+}
@@ -0,0 +1,69 @@
+package com.travelinsurance;
+
+import java.util.Objects;
+
+/**
+ * The trip details a quote price depends on; the key for cached quote responses
+ */
+public final class QuoteRequest {
+    private final String coverageType;
+    private final String tripType;
+    private final String coverType;
+    private final long tripDays;
+    private final int numTravelers;
+
+    public QuoteRequest(String coverageType, String tripType, String coverType, long tripDays, int numTravelers) {
+        this.coverageType = coverageType;
+        this.tripType = tripType;
+        this.coverType = coverType;
+        this.tripDays = tripDays;
+        this.numTravelers = numTravelers;
+    }
+
+    public String getCoverageType() {
+        return coverageType;
+    }
+
+    public String getTripType() {
+        return tripType;
+    }
+
+    public String getCoverType() {
+        return coverType;
+    }
+
+    public long getTripDays() {
+        return tripDays;
+    }
+
+    public int getNumTravelers() {
+        return numTravelers;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof QuoteRequest)) {
+            return false;
+        }
+        QuoteRequest other = (QuoteRequest) o;
+        return tripDays == other.tripDays
+                && numTravelers == other.numTravelers
+                && Objects.equals(coverageType, other.coverageType)
+                && Objects.equals(tripType, other.tripType)
+                && Objects.equals(coverType, other.coverType);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(coverageType, tripType, coverType, tripDays, numTravelers);
+    }
+
+    @Override
+    public String toString() {
+        return coverageType + " - " + tripType + " - " + coverType + " - " + tripDays + " days - "
+                + numTravelers + " travelers";
+    }
+}
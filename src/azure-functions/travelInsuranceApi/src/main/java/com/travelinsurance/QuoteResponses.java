@@ -0,0 +1,108 @@
+package com.travelinsurance;
+
+import com.travelinsurance.metrics.FunctionMetrics;
+import com.travelinsurance.metrics.Stage;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Priced quote response bodies per trip combination, cached on the worker.
+ *
+ * Requests are counted in PopularQuotes. Once a minute a background thread re-prices the most requested
+ * combinations against the current catalog and puts them back in the cache, so peak-hour requests for
+ * them are served from memory. Each response expires with the catalog snapshot it was priced from, so
+ * after a catalog reload they miss until the next run re-prices them. Counts are halved every ten runs, so the
+ * pre-warmed set follows the traffic of the last few minutes rather than of the whole day.
+ */
+public final class QuoteResponses {
+    private static final Logger LOGGER = Logger.getLogger(QuoteResponses.class.getName());
+
+    private static final int CACHE_SIZE = 1_000;
+    // Upper bound only; each response is put with its catalog's expiry, so it never outlives that snapshot
+    private static final long RESPONSE_TTL_MILLIS = 5 * 60_000;
+    private static final int TOP_K = 50;
+    private static final long PREWARM_INTERVAL_MILLIS = 60_000;
+    private static final int DECAY_EVERY_RUNS = 10;
+
+    private static final BoundedCache<QuoteRequest, ResponseBody> responses =
+            new BoundedCache<>(CACHE_SIZE, RESPONSE_TTL_MILLIS);
+    private static final PopularQuotes popular = new PopularQuotes(TOP_K, new CountMinSketch(4, 4096));
+
+    private static volatile ScheduledExecutorService prewarmer;
+    private static int prewarmRuns;
+
+    private QuoteResponses() {
+    }
+
+    /**
+     * The body for a quote request, from the cache or priced now
+     */
+    public static ResponseBody get(QuoteRequest request) throws SQLException {
+        popular.record(request);
+        startPrewarmer();
+
+        ResponseBody body = responses.get(request);
+        if (body == null) {
+            PlanCatalog catalog = PlanCatalog.get();
+            body = render(catalog, request);
+            responses.put(request, body, catalog.expiresAt());
+        }
+        return body;
+    }
+
+    /**
+     * Price every plan in the catalog for the request and serialize the result
+     */
+    public static ResponseBody render(PlanCatalog catalog, QuoteRequest request) {
+        List<Map<String, Object>> calculatedPlans;
+        try (Stage pricing = FunctionMetrics.stage("pricing")) {
+            calculatedPlans = QuotePricing.calculatePlans(catalog, request.getCoverageType(), request.getTripType(),
+                    request.getCoverType(), request.getTripDays(), request.getNumTravelers());
+        }
+        return ResponseBody.of(calculatedPlans);
+    }
+
+    /**
+     * Re-price the most requested combinations and age the request counts
+     */
+    static void prewarm() {
+        try {
+            PlanCatalog catalog = PlanCatalog.get();
+            for (QuoteRequest request : popular.top()) {
+                responses.put(request, render(catalog, request), catalog.expiresAt());
+            }
+        } catch (SQLException | RuntimeException e) {
+            // The next run tries again; requests still price on a miss
+            LOGGER.log(Level.WARNING, "Quote pre-warming failed: " + e.getMessage());
+        }
+
+        if (++prewarmRuns % DECAY_EVERY_RUNS == 0) {
+            popular.decay();
+        }
+    }
+
+    private static void startPrewarmer() {
+        if (prewarmer == null) {
+            synchronized (QuoteResponses.class) {
+                if (prewarmer == null) {
+                    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "quote-prewarm");
+                        // Never keeps the worker alive on its own
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    executor.scheduleWithFixedDelay(QuoteResponses::prewarm,
+                            PREWARM_INTERVAL_MILLIS, PREWARM_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                    prewarmer = executor;
+                }
+            }
+        }
+    }
+}
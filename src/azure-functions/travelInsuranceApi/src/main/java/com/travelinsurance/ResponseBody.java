@@ -0,0 +1,200 @@
+package com.travelinsurance;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.microsoft.azure.functions.HttpRequestMessage;
+import com.microsoft.azure.functions.HttpResponseMessage;
+import com.travelinsurance.metrics.FunctionMetrics;
+import com.travelinsurance.metrics.Stage;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body of plain maps and lists, in the representation the client asks for.
+ *
+ * JSON is rendered with org.json up front, as before. Clients whose Accept header names application/cbor
+ * with a q-value above zero and no lower than application/json's get CBOR instead, written by Jackson from
+ * the same maps. Bodies of at least COMPRESSION_THRESHOLD bytes are gzipped for clients whose
+ * Accept-Encoding gives gzip, or failing that *, a q-value above zero. Each variant is encoded once and kept, so a cached body costs
+ * nothing to send again in any representation.
+ */
+public final class ResponseBody {
+    static final String JSON = "application/json";
+    static final String CBOR = "application/cbor";
+    // Smaller bodies go out as they are: gzip's framing and CPU cost outweigh what it saves
+    static final int COMPRESSION_THRESHOLD = 1024;
+
+    private static final CBORMapper CBOR_MAPPER = new CBORMapper();
+
+    private final Object value;
+    private final String json;
+    private final int jsonBytes;
+    private volatile byte[] cbor;
+    private volatile byte[] gzippedJson;
+    private volatile byte[] gzippedCbor;
+
+    private ResponseBody(Object value, String json) {
+        this.value = value;
+        this.json = json;
+        this.jsonBytes = utf8Length(json);
+    }
+
+    /**
+     * Render the JSON of a map, a list of maps or a list of values
+     */
+    public static ResponseBody of(Object value) {
+        try (Stage serialization = FunctionMetrics.stage("serialization")) {
+            return new ResponseBody(value, JSONObject.wrap(value).toString());
+        }
+    }
+
+    public String json() {
+        return json;
+    }
+
+    /**
+     * Set the body and its Content-Type, Content-Encoding and Vary headers for the request
+     */
+    public HttpResponseMessage.Builder writeTo(HttpRequestMessage<?> request, HttpResponseMessage.Builder response) {
+        String accept = header(request, "Accept");
+        double cborQuality = quality(accept, CBOR, null);
+        boolean cborWanted = cborQuality > 0 && cborQuality >= quality(accept, JSON, null);
+        boolean gzipAccepted = quality(header(request, "Accept-Encoding"), "gzip", "*") > 0;
+        response.header("Content-Type", cborWanted ? CBOR : JSON)
+                .header("Vary", "Accept, Accept-Encoding");
+
+        if (cborWanted) {
+            byte[] body = cbor();
+            if (gzipAccepted && body.length >= COMPRESSION_THRESHOLD) {
+                return response.header("Content-Encoding", "gzip").body(gzippedCbor());
+            }
+            return response.body(body);
+        }
+        if (gzipAccepted && jsonBytes >= COMPRESSION_THRESHOLD) {
+            return response.header("Content-Encoding", "gzip").body(gzippedJson());
+        }
+        return response.body(json);
+    }
+
+    byte[] cbor() {
+        byte[] encoded = cbor;
+        if (encoded == null) {
+            try (Stage serialization = FunctionMetrics.stage("serialization")) {
+                encoded = CBOR_MAPPER.writeValueAsBytes(value);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Racing requests encode the same bytes, so no lock
+            cbor = encoded;
+        }
+        return encoded;
+    }
+
+    private byte[] gzippedJson() {
+        byte[] compressed = gzippedJson;
+        if (compressed == null) {
+            compressed = gzip(json.getBytes(StandardCharsets.UTF_8));
+            gzippedJson = compressed;
+        }
+        return compressed;
+    }
+
+    private byte[] gzippedCbor() {
+        byte[] compressed = gzippedCbor;
+        if (compressed == null) {
+            compressed = gzip(cbor());
+            gzippedCbor = compressed;
+        }
+        return compressed;
+    }
+
+    static byte[] gzip(byte[] bytes) {
+        try (Stage compression = FunctionMetrics.stage("compression")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            }
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The Functions host passes header names lower-cased; other callers may not
+     */
+    private static String header(HttpRequestMessage<?> request, String name) {
+        Map<String, String> headers = request.getHeaders();
+        String value = headers.get(name.toLowerCase(Locale.ROOT));
+        if (value != null) {
+            return value;
+        }
+        for (Map.Entry<String, String> entry : headers.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(name)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The q-value a header such as "gzip;q=0.8, *;q=0" gives token, or else the wildcard; 0 when it names
+     * neither, so "gzip;q=0" and "application/cbor;q=0" refuse rather than accept
+     */
+    static double quality(String headerValue, String token, String wildcard) {
+        if (headerValue == null) {
+            return 0;
+        }
+        double wildcardQuality = 0;
+        for (String entry : headerValue.split(",")) {
+            String[] parts = entry.split(";");
+            String name = parts[0].trim();
+            boolean exact = name.equalsIgnoreCase(token);
+            if (!exact && !name.equals(wildcard)) {
+                continue;
+            }
+            double q = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.length() > 2 && parameter.substring(0, 2).equalsIgnoreCase("q=")) {
+                    try {
+                        q = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (exact) {
+                return q;
+            }
+            wildcardQuality = q;
+        }
+        return wildcardQuality;
+    }
+
+    // What json.getBytes(UTF_8).length would be, without encoding it
+    static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+}
@@ -3,6 +3,9 @@ package com.travelinsurance;
 
 import com.microsoft.azure.functions.*;
 import com.microsoft.azure.functions.annotation.*;
+import com.travelinsurance.metrics.FunctionMetrics;
+import org.json.JSONArray;
+import org.json.JSONException;
 import org.json.JSONObject;
 
 import java.sql.*;
@@ -12,10 +15,16 @@ import java.util.*;
  * Azure Functions with HTTP Trigger for User Profile Management
  */
 public class UserProfileFunction {
-    // Database connection info - this would normally come from app settings
-    private static final String DB_URL = System.getenv("MYSQL_CONNECTION_STRING");
-    private static final String DB_USER = System.getenv("MYSQL_USER");
-    private static final String DB_PASSWORD = System.getenv("MYSQL_PASSWORD");
+    // Per-worker read-through cache; short TTL bounds staleness from writes served by other workers
+    private static final int PROFILE_CACHE_SIZE = 10_000;
+    private static final long PROFILE_CACHE_TTL_MILLIS = 60_000;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final BoundedCache<String, Map<String, Object>> profileCache =
+            new BoundedCache<>(PROFILE_CACHE_SIZE, PROFILE_CACHE_TTL_MILLIS);
+
+    static {
+        Warmup.startInBackground();
+    }
 
     /**
      * This function listens at endpoint "/api/user-profile".
@@ -30,6 +39,10 @@ public class UserProfileFunction {
                 HttpRequestMessage<Optional<String>> request,
             @BindingName("userId") String userId,
             final ExecutionContext context) {
+        return FunctionMetrics.invoke("getUserProfile", () -> handleGetUserProfile(request, userId, context));
+    }
+
+    private HttpResponseMessage handleGetUserProfile(HttpRequestMessage<Optional<String>> request, String userId, ExecutionContext context) {
         
         context.getLogger().info("Java HTTP trigger processed a request to get user profile.");
 
@@ -41,7 +54,13 @@ public class UserProfileFunction {
         }
 
         try {
-            Map<String, Object> profile = getUserProfile(userId);
+            Map<String, Object> profile = profileCache.get(userId);
+            if (profile == null) {
+                profile = getUserProfile(userId);
+                if (profile != null) {
+                    profileCache.put(userId, profile);
+                }
+            }
             
             if (profile == null) {
                 return request
@@ -80,6 +99,10 @@ public class UserProfileFunction {
                 route = "user-profile")
                 HttpRequestMessage<Optional<String>> request,
             final ExecutionContext context) {
+        return FunctionMetrics.invoke("updateUserProfile", () -> handleUpdateUserProfile(request, context));
+    }
+
+    private HttpResponseMessage handleUpdateUserProfile(HttpRequestMessage<Optional<String>> request, ExecutionContext context) {
         
         context.getLogger().info("Java HTTP trigger processed a request to update user profile.");
 
@@ -106,16 +129,9 @@ public class UserProfileFunction {
             String phone = requestJson.optString("phone", null);
             String address = requestJson.optString("address", null);
             
-            // Check if profile exists
-            Boolean profileExists = checkProfileExists(userId);
-            
-            if (profileExists) {
-                // Update profile
-                updateUserProfile(userId, firstName, lastName, email, phone, address);
-            } else {
-                // Create profile
-                createUserProfile(userId, firstName, lastName, email, phone, address);
-            }
+            // Create or update the profile in a single statement
+            upsertUserProfile(userId, firstName, lastName, email, phone, address);
+            profileCache.invalidate(userId);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -141,27 +157,119 @@ public class UserProfileFunction {
         }
     }
 
+    /**
+     * This function listens at endpoint "/api/user-profile/batch" for looking up several profiles at once.
+     */
+    @FunctionName("getUserProfilesBatch")
+    public HttpResponseMessage getProfilesBatch(
+            @HttpTrigger(
+                name = "req",
+                methods = {HttpMethod.POST},
+                authLevel = AuthorizationLevel.FUNCTION,
+                route = "user-profile/batch")
+                HttpRequestMessage<Optional<String>> request,
+            final ExecutionContext context) {
+        return FunctionMetrics.invoke("getUserProfilesBatch", () -> handleGetUserProfilesBatch(request, context));
+    }
+
+    private HttpResponseMessage handleGetUserProfilesBatch(HttpRequestMessage<Optional<String>> request, ExecutionContext context) {
+        
+        context.getLogger().info("Java HTTP trigger processed a batch user profile request.");
+
+        String requestBody = request.getBody().orElse("");
+        if (requestBody.isEmpty()) {
+            return request
+                    .createResponseBuilder(HttpStatus.BAD_REQUEST)
+                    .body("Please provide user IDs in the request body")
+                    .build();
+        }
+
+        List<String> userIds;
+        try {
+            userIds = parseUserIds(requestBody);
+        } catch (IllegalArgumentException e) {
+            return request
+                    .createResponseBuilder(HttpStatus.BAD_REQUEST)
+                    .body(e.getMessage())
+                    .build();
+        }
+
+        try {
+            // Serve what we can from the cache and load the rest in one query
+            Map<String, Map<String, Object>> profiles = new LinkedHashMap<>();
+            List<String> missing = new ArrayList<>();
+            for (String userId : userIds) {
+                Map<String, Object> cached = profileCache.get(userId);
+                if (cached != null) {
+                    profiles.put(userId, cached);
+                } else if (!profiles.containsKey(userId) && !missing.contains(userId)) {
+                    missing.add(userId);
+                }
+            }
+            
+            for (Map<String, Object> profile : getUserProfiles(missing)) {
+                String userId = (String) profile.get("userId");
+                profileCache.put(userId, profile);
+                profiles.put(userId, profile);
+            }
+            
+            JSONArray resultArray = new JSONArray();
+            for (Map<String, Object> profile : profiles.values()) {
+                resultArray.put(new JSONObject(profile));
+            }
+            
+            return request
+                    .createResponseBuilder(HttpStatus.OK)
+                    .header("Content-Type", "application/json")
+                    .body(new JSONObject().put("profiles", resultArray).toString())
+                    .build();
+                    
+        } catch (Exception e) {
+            context.getLogger().severe("Error processing request: " + e.getMessage());
+            return request
+                    .createResponseBuilder(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error processing request: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * The user IDs of a batch request body, or IllegalArgumentException saying what is wrong with it
+     */
+    static List<String> parseUserIds(String requestBody) {
+        JSONArray userIdsJson;
+        try {
+            userIdsJson = new JSONObject(requestBody).optJSONArray("userIds");
+        } catch (JSONException e) {
+            throw new IllegalArgumentException("Request body must be a JSON object");
+        }
+        if (userIdsJson == null) {
+            throw new IllegalArgumentException("Please provide a userIds array");
+        }
+        if (userIdsJson.length() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " user IDs");
+        }
+        List<String> userIds = new ArrayList<>(userIdsJson.length());
+        for (int i = 0; i < userIdsJson.length(); i++) {
+            Object userId = userIdsJson.opt(i);
+            if (!(userId instanceof String) || ((String) userId).isEmpty()) {
+                throw new IllegalArgumentException("userIds must be non-empty strings");
+            }
+            userIds.add((String) userId);
+        }
+        return userIds;
+    }
+
     // Helper methods
     private Map<String, Object> getUserProfile(String userId) throws SQLException {
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
+        try (Connection conn = Database.getConnection()) {
             String sql = "SELECT * FROM user_profiles WHERE user_id = ?";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
                 stmt.setString(1, userId);
                 
                 try (ResultSet rs = stmt.executeQuery()) {
                     if (rs.next()) {
-                        Map<String, Object> profile = new HashMap<>();
-                        profile.put("id", rs.getString("id"));
-                        profile.put("userId", rs.getString("user_id"));
-                        profile.put("email", rs.getString("email"));
-                        profile.put("firstName", rs.getString("first_name"));
-                        profile.put("lastName", rs.getString("last_name"));
-                        profile.put("phone", rs.getString("phone"));
-                        profile.put("address", rs.getString("address"));
-                        profile.put("createdAt", rs.getString("created_at"));
-                        profile.put("updatedAt", rs.getString("updated_at"));
-                        
-                        return profile;
+                        return mapProfile(rs);
                     }
                 }
             }
@@ -170,49 +278,62 @@ public class UserProfileFunction {
         return null;
     }
     
-    private Boolean checkProfileExists(String userId) throws SQLException {
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "SELECT COUNT(*) FROM user_profiles WHERE user_id = ?";
+    private List<Map<String, Object>> getUserProfiles(List<String> userIds) throws SQLException {
+        List<Map<String, Object>> profiles = new ArrayList<>();
+        if (userIds.isEmpty()) {
+            return profiles;
+        }
+        
+        try (Connection conn = Database.getConnection()) {
+            String placeholders = String.join(", ", Collections.nCopies(userIds.size(), "?"));
+            String sql = "SELECT * FROM user_profiles WHERE user_id IN (" + placeholders + ")";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, userId);
+                for (int i = 0; i < userIds.size(); i++) {
+                    stmt.setString(i + 1, userIds.get(i));
+                }
                 
                 try (ResultSet rs = stmt.executeQuery()) {
-                    if (rs.next()) {
-                        return rs.getInt(1) > 0;
+                    while (rs.next()) {
+                        profiles.add(mapProfile(rs));
                     }
                 }
             }
         }
         
-        return false;
+        return profiles;
     }
     
-    private void updateUserProfile(String userId, String firstName, String lastName, String email, String phone, String address) throws SQLException {
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "UPDATE user_profiles SET first_name = ?, last_name = ?, email = ?, phone = ?, address = ?, updated_at = NOW() WHERE user_id = ?";
-            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, firstName);
-                stmt.setString(2, lastName);
-                stmt.setString(3, email);
-                stmt.setString(4, phone);
-                stmt.setString(5, address);
-                stmt.setString(6, userId);
-                
-                stmt.executeUpdate();
-            }
-        }
+    private Map<String, Object> mapProfile(ResultSet rs) throws SQLException {
+        Map<String, Object> profile = new HashMap<>();
+        profile.put("id", rs.getString("id"));
+        profile.put("userId", rs.getString("user_id"));
+        profile.put("email", rs.getString("email"));
+        profile.put("firstName", rs.getString("first_name"));
+        profile.put("lastName", rs.getString("last_name"));
+        profile.put("phone", rs.getString("phone"));
+        profile.put("address", rs.getString("address"));
+        profile.put("createdAt", rs.getString("created_at"));
+        profile.put("updatedAt", rs.getString("updated_at"));
+        
+        // Cached profiles are shared between invocations, so never hand out a mutable map
+        return Collections.unmodifiableMap(profile);
     }
     
-    private void createUserProfile(String userId, String firstName, String lastName, String email, String phone, String address) throws SQLException {
-        try (Connection conn = DriverManager.getConnection(DB_URL, DB_USER, DB_PASSWORD)) {
-            String sql = "INSERT INTO user_profiles (user_id, first_name, last_name, email, phone, address) VALUES (?, ?, ?, ?, ?, ?)";
+    private void upsertUserProfile(String userId, String firstName, String lastName, String email, String phone, String address) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            // user_id is UNIQUE, so an existing profile turns the insert into an update
+            String sql = "INSERT INTO user_profiles (id, user_id, first_name, last_name, email, phone, address) " +
+                        "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                        "ON DUPLICATE KEY UPDATE first_name = VALUES(first_name), last_name = VALUES(last_name), " +
+                        "email = VALUES(email), phone = VALUES(phone), address = VALUES(address), updated_at = NOW()";
             try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-                stmt.setString(1, userId);
-                stmt.setString(2, firstName);
-                stmt.setString(3, lastName);
-                stmt.setString(4, email);
-                stmt.setString(5, phone);
-                stmt.setString(6, address);
+                stmt.setString(1, UUID.randomUUID().toString());
+                stmt.setString(2, userId);
+                stmt.setString(3, firstName);
+                stmt.setString(4, lastName);
+                stmt.setString(5, email);
+                stmt.setString(6, phone);
+                stmt.setString(7, address);
                 
                 stmt.executeUpdate();
             }
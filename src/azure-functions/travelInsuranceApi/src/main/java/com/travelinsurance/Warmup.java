@@ -0,0 +1,163 @@
+
+package com.travelinsurance;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * Does the one-off work a first request would otherwise pay for: class loading, JSON, CBOR and pricing
+ * initialisation, the JDBC driver and connection pool, and the plan catalog.
+ *
+ * The warmup trigger only fires on Premium and Dedicated plans, so every function class also starts warmup
+ * from its static initialiser. On the Consumption plan that happens when the worker first loads a function,
+ * and the rest of the worker warms in the background while that first request is served.
+ *
+ * Run as a program it is both the AppCDS training run and a cold versus warm timing probe:
+ * java -cp target/azure-functions/travel-insurance-api/*:target/azure-functions/travel-insurance-api/lib/* com.travelinsurance.Warmup
+ */
+public final class Warmup {
+    private static final String[] FUNCTION_CLASSES = {
+        "com.travelinsurance.GetQuotesFunction",
+        "com.travelinsurance.GetPlanDetailsFunction",
+        "com.travelinsurance.PurchasePlanFunction",
+        "com.travelinsurance.PaymentFunction",
+        "com.travelinsurance.UserProfileFunction",
+        "com.travelinsurance.DocumentUploadFunction"
+    };
+
+    private static final Logger LOGGER = Logger.getLogger(Warmup.class.getName());
+    private static final AtomicBoolean started = new AtomicBoolean();
+    private static final FutureTask<Map<String, Long>> once = new FutureTask<>(() -> run(LOGGER));
+
+    private Warmup() {
+    }
+
+    /**
+     * Start warmup on a daemon thread, once per worker
+     */
+    public static void startInBackground() {
+        if (started.compareAndSet(false, true)) {
+            Thread thread = new Thread(once, "function-warmup");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Warm up on the calling thread, or wait for a warmup already under way, and return its timings
+     */
+    public static Map<String, Long> runOnce() throws InterruptedException {
+        if (started.compareAndSet(false, true)) {
+            once.run();
+        }
+        try {
+            return once.get();
+        } catch (ExecutionException e) {
+            LOGGER.warning("Warmup failed: " + e.getCause());
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Run every warmup stage and return the time each took in nanoseconds
+     */
+    public static Map<String, Long> run(Logger logger) {
+        Map<String, Long> timings = new LinkedHashMap<>();
+
+        long start = System.nanoTime();
+        for (String className : FUNCTION_CLASSES) {
+            try {
+                Class.forName(className);
+            } catch (ClassNotFoundException e) {
+                logger.warning("Warmup could not load " + className);
+            }
+        }
+        timings.put("classes", System.nanoTime() - start);
+
+        // Exercise pricing and every response encoding on a sample catalog
+        start = System.nanoTime();
+        List<Map<String, Object>> plans = QuotePricing.calculatePlans(sampleCatalog(),
+                "Worldwide", "Single Trip", "Individual", 7, 1);
+        ResponseBody body = ResponseBody.of(plans);
+        ResponseBody.gzip(body.cbor());
+        timings.put("pricingAndJson", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            logger.warning("Warmup could not load the MySQL driver");
+        }
+        timings.put("jdbcDriver", System.nanoTime() - start);
+
+        // Only touch the database when one is configured, so the build-time training run works offline
+        String dbUrl = Database.setting("MYSQL_CONNECTION_STRING");
+        if (dbUrl != null && !dbUrl.isEmpty()) {
+            try {
+                start = System.nanoTime();
+                Database.warmUp();
+                timings.put("connectionPool", System.nanoTime() - start);
+
+                start = System.nanoTime();
+                PlanCatalog.get();
+                timings.put("planCatalog", System.nanoTime() - start);
+            } catch (Exception e) {
+                logger.warning("Warmup could not reach the database: " + e.getMessage());
+            }
+        }
+
+        logger.info("Warmup completed: " + toMillis(timings));
+        return timings;
+    }
+
+    /**
+     * Runs warmup twice in a fresh JVM: the first pass is the cold cost, the second the warm cost
+     */
+    public static void main(String[] args) {
+        // Loading the function classes must not start a second, overlapping warmup
+        started.set(true);
+        Map<String, Long> cold = run(LOGGER);
+        Map<String, Long> warm = run(LOGGER);
+
+        System.out.println("cold " + toMillis(cold));
+        System.out.println("warm " + toMillis(warm));
+        System.exit(0);
+    }
+
+    private static String toMillis(Map<String, Long> timings) {
+        StringBuilder result = new StringBuilder();
+        long total = 0;
+        for (Map.Entry<String, Long> timing : timings.entrySet()) {
+            result.append(timing.getKey()).append('=')
+                  .append(String.format(Locale.ROOT, "%.2f", timing.getValue() / 1_000_000.0)).append("ms ");
+            total += timing.getValue();
+        }
+        return result.append("total=").append(String.format(Locale.ROOT, "%.2f", total / 1_000_000.0)).append("ms").toString();
+    }
+
+    private static PlanCatalog sampleCatalog() {
+        Map<String, Object> plan = new HashMap<>();
+        plan.put("id", "warmup-plan");
+        plan.put("name", "Warmup Plan");
+        plan.put("provider", "Warmup");
+        plan.put("base_price", 50.0);
+        plan.put("coverage_limit", "$50,000");
+        plan.put("rating", 4.0);
+        plan.put("terms", "");
+        plan.put("exclusions", Collections.emptyList());
+        plan.put("pros", Collections.emptyList());
+        plan.put("cons", Collections.emptyList());
+
+        Map<String, Object> benefit = new HashMap<>();
+        benefit.put("name", "Medical");
+        benefit.put("description", "Emergency medical expenses");
+        benefit.put("limit", "$50,000");
+        benefit.put("isHighlighted", true);
+
+        return PlanCatalog.of(Collections.singletonList(plan),
+                Collections.singletonMap("warmup-plan", Collections.singletonList(benefit)));
+    }
+}
@@ -0,0 +1,22 @@
+
+package com.travelinsurance;
+
+import com.microsoft.azure.functions.*;
+import com.microsoft.azure.functions.annotation.*;
+
+/**
+ * Azure Functions with Warmup Trigger, run when a new instance is added before it receives traffic.
+ * The trigger only exists on Premium and Dedicated plans; elsewhere the function classes start warmup themselves.
+ */
+public class WarmupFunction {
+
+    @FunctionName("warmup")
+    public void run(
+            @WarmupTrigger(name = "warmupContext") Object warmupContext,
+            final ExecutionContext context) throws InterruptedException {
+
+        context.getLogger().info("Java warmup trigger is preparing a new function instance.");
+        // Shares the run a function class may already have started, and holds the instance back until it ends
+        Warmup.runOnce();
+    }
+}
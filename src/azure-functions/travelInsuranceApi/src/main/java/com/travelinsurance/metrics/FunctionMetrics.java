@@ -0,0 +1,134 @@
+
+package com.travelinsurance.metrics;
+
+import com.microsoft.azure.functions.HttpResponseMessage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for timing function handlers and their stages.
+ * Handlers run synchronously on the invocation thread, so the current invocation is kept in a thread local
+ * and helpers such as Database can add stages without it being passed around.
+ */
+public final class FunctionMetrics {
+    private static final long HISTOGRAM_EXPORT_INTERVAL_NANOS = 60_000_000_000L;
+
+    private static final ThreadLocal<InvocationMetrics> CURRENT = new ThreadLocal<>();
+    private static final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    private static volatile MetricsExporter exporter = createDefaultExporter();
+    private static volatile long lastHistogramExport = System.nanoTime();
+
+    private FunctionMetrics() {
+    }
+
+    /**
+     * Run a handler as one timed invocation and export its metrics
+     */
+    public static HttpResponseMessage invoke(String function, Supplier<HttpResponseMessage> handler) {
+        InvocationMetrics invocation = new InvocationMetrics(function, System.nanoTime());
+        InvocationMetrics outer = CURRENT.get();
+        CURRENT.set(invocation);
+        HttpResponseMessage response = null;
+        try {
+            response = handler.get();
+            return response;
+        } finally {
+            long end = System.nanoTime();
+            restore(outer);
+            invocation.finish(response != null ? response.getStatusCode() : 500, end);
+            histogram(function + ".total").record(invocation.getTotalNanos());
+            export(invocation, end);
+        }
+    }
+
+    /**
+     * Start a stage on the current invocation; use with try-with-resources
+     */
+    public static Stage stage(String name) {
+        InvocationMetrics invocation = CURRENT.get();
+        if (invocation == null) {
+            return Stage.NOOP;
+        }
+        return new Stage(invocation, name, System.nanoTime());
+    }
+
+    /**
+     * Record an already measured stage on the current invocation
+     */
+    public static void recordStage(String name, long nanos) {
+        InvocationMetrics invocation = CURRENT.get();
+        if (invocation != null) {
+            record(invocation, name, nanos);
+        }
+    }
+
+    public static void setExporter(MetricsExporter metricsExporter) {
+        exporter = metricsExporter;
+    }
+
+    /**
+     * Send the histograms recorded so far to the exporter and start new ones
+     */
+    public static void flushHistograms() {
+        lastHistogramExport = System.nanoTime();
+        Map<String, Histogram.Snapshot> snapshots = new HashMap<>();
+        // Histograms stay in the map and are reset in place, so a concurrent record() is never lost
+        for (Map.Entry<String, Histogram> histogram : histograms.entrySet()) {
+            Histogram.Snapshot snapshot = histogram.getValue().snapshotAndReset();
+            if (snapshot.getCount() > 0) {
+                snapshots.put(histogram.getKey(), snapshot);
+            }
+        }
+        if (!snapshots.isEmpty()) {
+            exporter.exportHistograms(snapshots);
+        }
+    }
+
+    static void record(InvocationMetrics invocation, String stage, long nanos) {
+        invocation.addStage(stage, nanos);
+        histogram(invocation.getFunction() + "." + stage).record(nanos);
+    }
+
+    private static Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, k -> new Histogram());
+    }
+
+    private static void restore(InvocationMetrics outer) {
+        if (outer == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(outer);
+        }
+    }
+
+    private static void export(InvocationMetrics invocation, long now) {
+        try {
+            exporter.exportInvocation(invocation);
+            if (now - lastHistogramExport >= HISTOGRAM_EXPORT_INTERVAL_NANOS) {
+                flushHistograms();
+            }
+        } catch (RuntimeException e) {
+            // Metrics must never fail a request
+        }
+    }
+
+    private static MetricsExporter createDefaultExporter() {
+        String setting = System.getProperty("METRICS_EXPORTER", System.getenv("METRICS_EXPORTER"));
+        if ("none".equalsIgnoreCase(setting)) {
+            return new MetricsExporter() {
+                @Override
+                public void exportInvocation(InvocationMetrics invocation) {
+                }
+
+                @Override
+                public void exportHistograms(Map<String, Histogram.Snapshot> histograms) {
+                }
+            };
+        }
+        return new LogMetricsExporter();
+    }
+}
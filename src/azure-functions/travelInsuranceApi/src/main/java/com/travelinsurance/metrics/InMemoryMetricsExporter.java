@@ -0,0 +1,38 @@
+
+package com.travelinsurance.metrics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps exported metrics in memory, for tests and local load runs
+ */
+public class InMemoryMetricsExporter implements MetricsExporter {
+    private final List<InvocationMetrics> invocations = new ArrayList<>();
+    private final Map<String, Histogram.Snapshot> histograms = new HashMap<>();
+
+    @Override
+    public synchronized void exportInvocation(InvocationMetrics invocation) {
+        invocations.add(invocation);
+    }
+
+    @Override
+    public synchronized void exportHistograms(Map<String, Histogram.Snapshot> histograms) {
+        this.histograms.putAll(histograms);
+    }
+
+    public synchronized List<InvocationMetrics> getInvocations() {
+        return new ArrayList<>(invocations);
+    }
+
+    public synchronized Map<String, Histogram.Snapshot> getHistograms() {
+        return new HashMap<>(histograms);
+    }
+
+    public synchronized void clear() {
+        invocations.clear();
+        histograms.clear();
+    }
+}
@@ -0,0 +1,56 @@
+
+package com.travelinsurance.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stage timings collected for a single function invocation
+ */
+public final class InvocationMetrics {
+    private final String function;
+    private final long startNanos;
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private final Map<String, Integer> stageCounts = new LinkedHashMap<>();
+    private int status;
+    private long totalNanos;
+
+    InvocationMetrics(String function, long startNanos) {
+        this.function = function;
+        this.startNanos = startNanos;
+    }
+
+    void addStage(String stage, long nanos) {
+        stageNanos.merge(stage, nanos, Long::sum);
+        stageCounts.merge(stage, 1, Integer::sum);
+    }
+
+    void finish(int status, long endNanos) {
+        this.status = status;
+        this.totalNanos = endNanos - startNanos;
+    }
+
+    public String getFunction() {
+        return function;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Total time per stage; a stage that ran several times (e.g. a repeated statement) is summed
+     */
+    public Map<String, Long> getStageNanos() {
+        return Collections.unmodifiableMap(stageNanos);
+    }
+
+    public Map<String, Integer> getStageCounts() {
+        return Collections.unmodifiableMap(stageCounts);
+    }
+}
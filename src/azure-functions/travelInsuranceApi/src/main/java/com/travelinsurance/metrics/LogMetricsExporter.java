@@ -0,0 +1,42 @@
+
+package com.travelinsurance.metrics;
+
+import org.json.JSONObject;
+
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Writes metrics as single-line JSON so log analytics can aggregate them by function and stage
+ */
+public class LogMetricsExporter implements MetricsExporter {
+    private static final Logger LOGGER = Logger.getLogger("com.travelinsurance.metrics");
+
+    @Override
+    public void exportInvocation(InvocationMetrics invocation) {
+        JSONObject json = new JSONObject();
+        json.put("type", "invocation");
+        json.put("function", invocation.getFunction());
+        json.put("status", invocation.getStatus());
+        json.put("totalNanos", invocation.getTotalNanos());
+        json.put("stageNanos", invocation.getStageNanos());
+        json.put("stageCounts", invocation.getStageCounts());
+        LOGGER.info(json.toString());
+    }
+
+    @Override
+    public void exportHistograms(Map<String, Histogram.Snapshot> histograms) {
+        for (Map.Entry<String, Histogram.Snapshot> entry : histograms.entrySet()) {
+            Histogram.Snapshot snapshot = entry.getValue();
+            JSONObject json = new JSONObject();
+            json.put("type", "histogram");
+            json.put("metric", entry.getKey());
+            json.put("count", snapshot.getCount());
+            json.put("meanNanos", Math.round(snapshot.getMean()));
+            json.put("p50Nanos", snapshot.getPercentile(50));
+            json.put("p99Nanos", snapshot.getPercentile(99));
+            json.put("maxNanos", snapshot.getMax());
+            LOGGER.info(json.toString());
+        }
+    }
+}
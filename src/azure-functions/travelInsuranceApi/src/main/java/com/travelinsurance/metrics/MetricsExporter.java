@@ -0,0 +1,20 @@
+
+package com.travelinsurance.metrics;
+
+import java.util.Map;
+
+/**
+ * Destination for function metrics
+ */
+public interface MetricsExporter {
+
+    /**
+     * Called once per completed invocation with its stage breakdown
+     */
+    void exportInvocation(InvocationMetrics invocation);
+
+    /**
+     * Called periodically with the histograms recorded since the previous call, keyed by "function.stage"
+     */
+    void exportHistograms(Map<String, Histogram.Snapshot> histograms);
+}
@@ -0,0 +1,38 @@
+
+package com.travelinsurance.metrics;
+
+import java.sql.Connection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Wraps JDBC connections so every executed prepared statement is recorded as a "sql.verb.table" stage.
+ * The wrappers are plain delegating classes; only the execute calls are timed.
+ */
+public final class SqlTiming {
+    private static final Pattern TABLE = Pattern.compile("\\b(?:from|into|update)\\s+([a-z_][a-z0-9_]*)");
+    private static final Map<String, String> labels = new ConcurrentHashMap<>();
+
+    private SqlTiming() {
+    }
+
+    public static Connection wrap(Connection connection) {
+        return new TimedConnection(connection);
+    }
+
+    /**
+     * Short, low-cardinality stage name for a statement, e.g. "sql.select.insurance_plans"
+     */
+    static String label(String sql) {
+        return labels.computeIfAbsent(sql, s -> {
+            String normalized = s.trim().toLowerCase(Locale.ROOT);
+            int space = normalized.indexOf(' ');
+            String verb = space > 0 ? normalized.substring(0, space) : normalized;
+            Matcher matcher = TABLE.matcher(normalized);
+            return matcher.find() ? "sql." + verb + "." + matcher.group(1) : "sql." + verb;
+        });
+    }
+}
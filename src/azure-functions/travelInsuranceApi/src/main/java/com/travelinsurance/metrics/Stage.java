@@ -0,0 +1,26 @@
+
+package com.travelinsurance.metrics;
+
+/**
+ * A running stage timer; closing it records the elapsed time on the current invocation
+ */
+public final class Stage implements AutoCloseable {
+    static final Stage NOOP = new Stage(null, null, 0);
+
+    private final InvocationMetrics invocation;
+    private final String name;
+    private final long startNanos;
+
+    Stage(InvocationMetrics invocation, String name, long startNanos) {
+        this.invocation = invocation;
+        this.name = name;
+        this.startNanos = startNanos;
+    }
+
+    @Override
+    public void close() {
+        if (invocation != null) {
+            FunctionMetrics.record(invocation, name, System.nanoTime() - startNanos);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.travelinsurance;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BoundedCacheTest {
+
+    @Test
+    void evictsTheLeastRecentlyReadEntryBeyondTheSizeBound() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2, 60_000);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        // Reading "a" makes "b" the least recently used
+        cache.get("a");
+
+        cache.put("c", 3);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    void dropsEntriesOnceTheirTtlHasPassed() throws InterruptedException {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 20);
+        cache.put("a", 1);
+        assertEquals(1, cache.get("a"));
+
+        Thread.sleep(40);
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void expiresAtTheEarlierOfTheGivenTimeAndTheTtl() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 60_000);
+        long now = System.currentTimeMillis();
+        cache.put("past", 1, now - 1);
+        cache.put("later", 2, now + 10 * 60_000);
+
+        assertNull(cache.get("past"));
+        assertEquals(2, cache.get("later"));
+    }
+
+    @Test
+    void invalidateAndClearRemoveEntries() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(10, 60_000);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        cache.invalidate("a");
+        assertNull(cache.get("a"));
+        assertEquals(1, cache.size());
+
+        cache.clear();
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,69 @@
+package com.travelinsurance;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DocumentUploadFunctionTest {
+
+    // 0xfb 0xff 0xfe encodes to "+//+" in plain base64 and "-__-" in the URL-safe alphabet
+    private static final byte[] CONTENT = {(byte) 0xfb, (byte) 0xff, (byte) 0xfe, 'p', 'd', 'f'};
+
+    @Test
+    void decodesPlainMimeAndUrlSafePayloads() {
+        String plain = Base64.getEncoder().encodeToString(CONTENT);
+
+        assertArrayEquals(CONTENT, DocumentUploadFunction.decodeBase64(plain));
+        assertArrayEquals(CONTENT, DocumentUploadFunction.decodeBase64(plain.substring(0, 4) + "\r\n" + plain.substring(4)));
+        assertArrayEquals(CONTENT, DocumentUploadFunction.decodeBase64(Base64.getUrlEncoder().withoutPadding().encodeToString(CONTENT)));
+    }
+
+    @Test
+    void rejectsPayloadsThatAreNotBase64() {
+        assertThrows(IllegalArgumentException.class, () -> DocumentUploadFunction.decodeBase64("not*base64"));
+    }
+
+    @Test
+    void digestsTheDecodedContent() throws Exception {
+        DocumentUploadFunction.ContentDigest digest =
+                DocumentUploadFunction.digest("abc".getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", digest.hash);
+        assertEquals(3, digest.size);
+    }
+
+    @Test
+    void keepsOnlyASafeFileExtension() {
+        assertEquals(".pdf", DocumentUploadFunction.fileExtension("passport.scan.PDF"));
+        assertEquals("", DocumentUploadFunction.fileExtension("passport"));
+        assertEquals("", DocumentUploadFunction.fileExtension("passport./../../other"));
+        assertEquals("", DocumentUploadFunction.fileExtension("passport."));
+    }
+
+    @Test
+    void rejectsIdsThatAreNotASinglePathSegment() {
+        DocumentUploadFunction.requirePathSegment("policyId", "POL-2024_001");
+
+        assertThrows(IllegalArgumentException.class, () -> DocumentUploadFunction.requirePathSegment("policyId", ".."));
+        assertThrows(IllegalArgumentException.class, () -> DocumentUploadFunction.requirePathSegment("policyId", "a/../b"));
+        assertThrows(IllegalArgumentException.class, () -> DocumentUploadFunction.requirePathSegment("userId", ""));
+    }
+
+    @Test
+    void checksUploadedBlobsAgainstTheLimits() {
+        assertNull(DocumentUploadFunction.checkUploadedBlob(2_048, "application/pdf"));
+        assertNull(DocumentUploadFunction.checkUploadedBlob(2_048, "IMAGE/PNG; name=scan.png"));
+
+        assertNotNull(DocumentUploadFunction.checkUploadedBlob(0, "application/pdf"));
+        assertNotNull(DocumentUploadFunction.checkUploadedBlob(3L * 1024 * 1024 * 1024, "application/pdf"));
+        assertNotNull(DocumentUploadFunction.checkUploadedBlob(2_048, "text/html"));
+        assertNotNull(DocumentUploadFunction.checkUploadedBlob(2_048, null));
+    }
+}
@@ -0,0 +1,65 @@
+package com.travelinsurance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PopularQuotesTest {
+
+    @Test
+    void sketchNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 64);
+        for (int key = 0; key < 1_000; key++) {
+            for (int i = 0; i <= key % 5; i++) {
+                sketch.add(key);
+            }
+        }
+
+        for (int key = 0; key < 1_000; key++) {
+            assertTrue(sketch.estimate(key) >= key % 5 + 1);
+        }
+    }
+
+    @Test
+    void topKeepsTheMostRequestedCombinations() {
+        PopularQuotes popular = new PopularQuotes(2, new CountMinSketch(4, 1024));
+        QuoteRequest worldwide = request("Worldwide");
+        QuoteRequest schengen = request("Schengen");
+        record(popular, request("Domestic"), 1);
+        record(popular, schengen, 5);
+        record(popular, worldwide, 10);
+        // A long tail of one-off combinations must not push out the popular ones
+        for (int days = 1; days <= 200; days++) {
+            popular.record(new QuoteRequest("Asia", "Single Trip", "Individual", days, 1));
+        }
+
+        assertEquals(Arrays.asList(worldwide, schengen), popular.top());
+    }
+
+    @Test
+    void decayLetsNewTrafficTakeOver() {
+        PopularQuotes popular = new PopularQuotes(1, new CountMinSketch(4, 1024));
+        record(popular, request("Worldwide"), 8);
+        popular.decay();
+        popular.decay();
+
+        record(popular, request("Schengen"), 3);
+
+        List<QuoteRequest> top = popular.top();
+        assertEquals(Arrays.asList(request("Schengen")), top);
+    }
+
+    private static void record(PopularQuotes popular, QuoteRequest request, int times) {
+        for (int i = 0; i < times; i++) {
+            popular.record(request);
+        }
+    }
+
+    private static QuoteRequest request(String coverageType) {
+        return new QuoteRequest(coverageType, "Single Trip", "Individual", 7, 1);
+    }
+}
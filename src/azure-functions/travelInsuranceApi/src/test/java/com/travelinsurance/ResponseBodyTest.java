@@ -0,0 +1,135 @@
+package com.travelinsurance;
+
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.microsoft.azure.functions.HttpRequestMessage;
+import com.microsoft.azure.functions.HttpResponseMessage;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Answers;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ResponseBodyTest {
+
+    @Test
+    void sendsJsonByDefault() {
+        ResponseBody body = ResponseBody.of(plans(1));
+        HttpResponseMessage.Builder response = response();
+
+        body.writeTo(request(Collections.emptyMap()), response);
+
+        verify(response).header("Content-Type", ResponseBody.JSON);
+        verify(response, never()).header("Content-Encoding", "gzip");
+        verify(response).body(body.json());
+    }
+
+    @Test
+    void sendsCborWhenAccepted() throws IOException {
+        List<Map<String, Object>> plans = plans(1);
+        HttpResponseMessage.Builder response = response();
+
+        ResponseBody.of(plans).writeTo(request(Map.of("accept", "application/cbor, application/json;q=0.5")), response);
+
+        verify(response).header("Content-Type", ResponseBody.CBOR);
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(response).body(sent.capture());
+        assertEquals(plans, new CBORMapper().readValue((byte[]) sent.getValue(), List.class));
+    }
+
+    @Test
+    void gzipsLargeBodiesWhenAccepted() throws IOException {
+        ResponseBody body = ResponseBody.of(plans(50));
+        HttpResponseMessage.Builder response = response();
+
+        body.writeTo(request(Map.of("Accept-Encoding", "gzip, deflate, br")), response);
+
+        verify(response).header("Content-Encoding", "gzip");
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(response).body(sent.capture());
+        byte[] compressed = (byte[]) sent.getValue();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(body.json().getBytes(StandardCharsets.UTF_8), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void leavesSmallBodiesUncompressed() {
+        ResponseBody body = ResponseBody.of(plans(1));
+        HttpResponseMessage.Builder response = response();
+
+        body.writeTo(request(Map.of("accept-encoding", "gzip")), response);
+
+        verify(response, never()).header("Content-Encoding", "gzip");
+        verify(response).body(body.json());
+    }
+
+    @Test
+    void refusesRepresentationsWithZeroQuality() {
+        ResponseBody body = ResponseBody.of(plans(50));
+        HttpResponseMessage.Builder response = response();
+
+        body.writeTo(request(Map.of("accept", "application/cbor;q=0, application/json",
+                "accept-encoding", "gzip;q=0, deflate")), response);
+
+        verify(response).header("Content-Type", ResponseBody.JSON);
+        verify(response, never()).header("Content-Encoding", "gzip");
+        verify(response).body(body.json());
+    }
+
+    @Test
+    void readsQualityValuesAndWildcards() {
+        assertEquals(0.8, ResponseBody.quality("deflate, gzip;q=0.8", "gzip", "*"));
+        assertEquals(0.5, ResponseBody.quality("identity, *;q=0.5", "gzip", "*"));
+        assertEquals(0, ResponseBody.quality("*;q=1, gzip;q=0", "gzip", "*"));
+        assertEquals(0, ResponseBody.quality("*/*", ResponseBody.CBOR, null));
+        assertEquals(0, ResponseBody.quality(null, "gzip", "*"));
+    }
+
+    @Test
+    void measuresTheThresholdInUtf8Bytes() {
+        // 400 characters, 1200 bytes
+        String text = "\u20ac".repeat(400);
+
+        assertEquals(text.getBytes(StandardCharsets.UTF_8).length, ResponseBody.utf8Length(text));
+        assertEquals(4, ResponseBody.utf8Length("\ud83d\ude00"));
+    }
+
+    private static List<Map<String, Object>> plans(int count) {
+        List<Map<String, Object>> plans = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> plan = new HashMap<>();
+            plan.put("id", "plan-" + i);
+            plan.put("name", "Worldwide Essentials " + i);
+            plan.put("price", 42.5 + i);
+            plan.put("exclusions", List.of("Pre-existing conditions", "Extreme sports"));
+            plans.add(plan);
+        }
+        return plans;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpRequestMessage<Object> request(Map<String, String> headers) {
+        HttpRequestMessage<Object> request = mock(HttpRequestMessage.class);
+        when(request.getHeaders()).thenReturn(headers);
+        return request;
+    }
+
+    private static HttpResponseMessage.Builder response() {
+        return mock(HttpResponseMessage.Builder.class, Answers.RETURNS_SELF);
+    }
+}
@@ -0,0 +1,37 @@
+package com.travelinsurance;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserProfileFunctionTest {
+
+    @Test
+    void parsesTheUserIdsOfABatchRequest() {
+        assertEquals(Arrays.asList("user-1", "user-2"),
+                UserProfileFunction.parseUserIds("{\"userIds\": [\"user-1\", \"user-2\"]}"));
+    }
+
+    @Test
+    void rejectsMalformedBatchRequests() {
+        assertThrows(IllegalArgumentException.class, () -> UserProfileFunction.parseUserIds("not json"));
+        assertThrows(IllegalArgumentException.class, () -> UserProfileFunction.parseUserIds("{}"));
+        assertThrows(IllegalArgumentException.class, () -> UserProfileFunction.parseUserIds("{\"userIds\": \"user-1\"}"));
+        assertThrows(IllegalArgumentException.class, () -> UserProfileFunction.parseUserIds("{\"userIds\": [\"user-1\", 2]}"));
+        assertThrows(IllegalArgumentException.class, () -> UserProfileFunction.parseUserIds("{\"userIds\": [null]}"));
+    }
+
+    @Test
+    void rejectsBatchesOverTheLimit() {
+        StringBuilder body = new StringBuilder("{\"userIds\": [");
+        for (int i = 0; i <= 100; i++) {
+            body.append(i > 0 ? ", " : "").append("\"user-").append(i).append('"');
+        }
+        body.append("]}");
+
+        assertThrows(IllegalArgumentException.class, () -> UserProfileFunction.parseUserIds(body.toString()));
+    }
+}
@@ -0,0 +1,151 @@
+
+package com.travelinsurance.metrics;
+
+import com.microsoft.azure.functions.HttpResponseMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FunctionMetricsTest {
+
+    private InMemoryMetricsExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new InMemoryMetricsExporter();
+        FunctionMetrics.setExporter(exporter);
+        FunctionMetrics.flushHistograms();
+        exporter.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        FunctionMetrics.setExporter(new InMemoryMetricsExporter());
+    }
+
+    @Test
+    void invoke_RecordsStatusAndStages() {
+        HttpResponseMessage response = mock(HttpResponseMessage.class);
+        when(response.getStatusCode()).thenReturn(200);
+
+        HttpResponseMessage result = FunctionMetrics.invoke("getQuotes", () -> {
+            try (Stage pricing = FunctionMetrics.stage("pricing")) {
+                FunctionMetrics.recordStage("sql.select.insurance_plans", 1_000);
+                FunctionMetrics.recordStage("sql.select.insurance_plans", 2_000);
+            }
+            return response;
+        });
+
+        assertSame(response, result);
+        List<InvocationMetrics> invocations = exporter.getInvocations();
+        assertEquals(1, invocations.size());
+
+        InvocationMetrics invocation = invocations.get(0);
+        assertEquals("getQuotes", invocation.getFunction());
+        assertEquals(200, invocation.getStatus());
+        assertEquals(3_000L, invocation.getStageNanos().get("sql.select.insurance_plans"));
+        assertEquals(2, invocation.getStageCounts().get("sql.select.insurance_plans"));
+        assertTrue(invocation.getStageNanos().containsKey("pricing"));
+        assertTrue(invocation.getTotalNanos() >= invocation.getStageNanos().get("pricing"));
+    }
+
+    @Test
+    void invoke_HandlerThrows_RecordsServerError() {
+        assertThrows(IllegalStateException.class, () -> FunctionMetrics.invoke("purchasePlan", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals(500, exporter.getInvocations().get(0).getStatus());
+    }
+
+    @Test
+    void stage_OutsideInvocation_IsIgnored() {
+        try (Stage stage = FunctionMetrics.stage("pricing")) {
+            FunctionMetrics.recordStage("connectionAcquire", 1_000);
+        }
+        FunctionMetrics.flushHistograms();
+
+        assertTrue(exporter.getInvocations().isEmpty());
+        assertTrue(exporter.getHistograms().isEmpty());
+    }
+
+    @Test
+    void flushHistograms_ExportsPerFunctionStages() {
+        HttpResponseMessage response = mock(HttpResponseMessage.class);
+        when(response.getStatusCode()).thenReturn(200);
+        for (int i = 0; i < 3; i++) {
+            FunctionMetrics.invoke("getPlanDetails", () -> {
+                FunctionMetrics.recordStage("serialization", 5_000);
+                return response;
+            });
+        }
+
+        FunctionMetrics.flushHistograms();
+
+        Map<String, Histogram.Snapshot> histograms = exporter.getHistograms();
+        assertEquals(3, histograms.get("getPlanDetails.total").getCount());
+        assertEquals(3, histograms.get("getPlanDetails.serialization").getCount());
+        assertEquals(15_000, histograms.get("getPlanDetails.serialization").getSum());
+    }
+
+    @Test
+    void histogram_PercentilesWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        Histogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMax());
+        assertEquals(500_500.0, snapshot.getMean(), 0.001);
+        assertWithin(500_000, snapshot.getPercentile(50));
+        assertWithin(990_000, snapshot.getPercentile(99));
+        assertEquals(1_000_000, snapshot.getPercentile(100));
+    }
+
+    @Test
+    void histogram_SnapshotAndResetLosesNothingRecordedConcurrently() throws Exception {
+        Histogram histogram = new Histogram();
+        int threads = 4;
+        int perThread = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> writers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            writers.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    histogram.record(1_000);
+                }
+            }));
+        }
+
+        long seen = 0;
+        while (!writers.stream().allMatch(Future::isDone)) {
+            seen += histogram.snapshotAndReset().getCount();
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        seen += histogram.snapshotAndReset().getCount();
+        executor.shutdown();
+
+        assertEquals((long) threads * perThread, seen);
+        assertEquals(0, histogram.snapshot().getCount());
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.125,
+                "expected " + actual + " to be within 12.5% above " + expected);
+    }
+}
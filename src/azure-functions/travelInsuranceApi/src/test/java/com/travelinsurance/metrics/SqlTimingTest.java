@@ -0,0 +1,69 @@
+package com.travelinsurance.metrics;
+
+import com.microsoft.azure.functions.HttpResponseMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SqlTimingTest {
+
+    private static final String SQL = "SELECT * FROM insurance_plans WHERE id = ?";
+
+    private InMemoryMetricsExporter exporter;
+
+    @BeforeEach
+    void setUp() {
+        exporter = new InMemoryMetricsExporter();
+        FunctionMetrics.setExporter(exporter);
+    }
+
+    @AfterEach
+    void tearDown() {
+        FunctionMetrics.setExporter(new InMemoryMetricsExporter());
+    }
+
+    @Test
+    void label_NamesVerbAndTable() {
+        assertEquals("sql.select.insurance_plans", SqlTiming.label(SQL));
+        assertEquals("sql.insert.document_uploads", SqlTiming.label("INSERT INTO document_uploads (id) VALUES (?)"));
+        assertEquals("sql.update.traveler_info", SqlTiming.label("UPDATE traveler_info SET visa_document_url = ?"));
+    }
+
+    @Test
+    void wrap_RecordsOnlyExecuteCallsAsStages() throws Exception {
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(connection.prepareStatement(SQL)).thenReturn(statement);
+        when(statement.executeQuery()).thenReturn(resultSet);
+        HttpResponseMessage response = mock(HttpResponseMessage.class);
+        when(response.getStatusCode()).thenReturn(200);
+
+        FunctionMetrics.invoke("getPlanDetails", () -> {
+            try (Connection timed = SqlTiming.wrap(connection);
+                 PreparedStatement stmt = timed.prepareStatement(SQL)) {
+                stmt.setString(1, "plan-1");
+                assertSame(resultSet, stmt.executeQuery());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            return response;
+        });
+
+        verify(statement).setString(1, "plan-1");
+        verify(statement).close();
+        verify(connection).close();
+        Map<String, Integer> stages = exporter.getInvocations().get(0).getStageCounts();
+        assertEquals(Map.of("sql.select.insurance_plans", 1), stages);
+    }
+}
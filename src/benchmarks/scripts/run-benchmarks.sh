@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Builds and runs the JMH benchmarks, writing machine-readable results for comparing runs over time.
+#
+# Usage: scripts/run-benchmarks.sh [benchmark regex] [extra JMH options]
+# Results go to results/jmh-<timestamp>-<git sha>.json; compare two files with any JMH JSON viewer,
+# e.g. https://jmh.morethan.io. Install the functions and gateway modules first (see pom.xml).
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+FILTER="${1:-.*}"
+shift || true
+
+mvn -B -q package
+mkdir -p results
+SHA="$(git rev-parse --short HEAD 2>/dev/null || echo unknown)"
+RESULT="results/jmh-$(date -u +%Y%m%dT%H%M%SZ)-$SHA.json"
+
+java -jar target/benchmarks.jar "$FILTER" -rf json -rff "$RESULT" "$@"
+echo "Results written to $RESULT"
@@ -0,0 +1,114 @@
+package com.travelinsurance.benchmarks;
+
+import com.insurance.backend.config.InsuranceProviderConfig;
+import com.insurance.backend.metrics.ProviderCallMetrics;
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.repository.InsuranceQuoteRepository;
+import com.insurance.backend.repository.QuoteView;
+import com.insurance.backend.service.InsuranceQuoteServiceImpl;
+import com.insurance.backend.service.QuoteReader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Pageable;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The Reactor pipeline in InsuranceQuoteServiceImpl.getQuotesFromAllProviders with stubbed providers.
+ * The stream paces its elements, so it runs on virtual time: the benchmark measures the pipeline's
+ * own cost rather than the configured delays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class QuoteAggregationBenchmark {
+    // Longer than the whole stream's pacing for any parameter combination
+    private static final Duration DRAIN_TIME = Duration.ofDays(365);
+
+    @Param({"3", "30"})
+    private int providerCount;
+
+    @Param({"1", "50"})
+    private int quotesPerProvider;
+
+    private InsuranceQuoteServiceImpl service;
+    private VirtualTimeScheduler scheduler;
+
+    @Setup
+    public void setUp() {
+        Map<String, List<QuoteView>> quotesByProvider = new HashMap<>();
+        Map<String, InsuranceProviderConfig.ProviderProperties> providers = new LinkedHashMap<>();
+        for (int p = 0; p < providerCount; p++) {
+            String providerId = "provider" + p;
+            InsuranceProviderConfig.ProviderProperties props = new InsuranceProviderConfig.ProviderProperties();
+            props.setEnabled(true);
+            props.setFetchFromDb(true);
+            providers.put(providerId, props);
+
+            List<QuoteView> quotes = new ArrayList<>(quotesPerProvider);
+            for (int q = 0; q < quotesPerProvider; q++) {
+                quotes.add(new QuoteView((long) q + 1, providerId, null, BigDecimal.valueOf(100 + q), null,
+                        LocalDateTime.now().plusDays(1), null, null, InsuranceQuote.QuoteStatus.PENDING, 0L));
+            }
+            quotesByProvider.put(providerId, quotes);
+        }
+
+        InsuranceProviderConfig providerConfig = new InsuranceProviderConfig();
+        providerConfig.setProviders(providers);
+
+        // No provider has an apiUrl, so the HTTP client is never used; the stub repository never blocks
+        ProviderCallMetrics providerCallMetrics = new ProviderCallMetrics(new SimpleMeterRegistry(), providerConfig);
+        InsuranceQuoteRepository repository = stubRepository(quotesByProvider);
+        QuoteReader quoteReader = new QuoteReader(repository, providerCallMetrics, Schedulers.immediate());
+        service = new InsuranceQuoteServiceImpl(repository, null, providerConfig, null,
+                providerCallMetrics, Schedulers.immediate(), null, null, null, quoteReader);
+        scheduler = VirtualTimeScheduler.getOrSet();
+    }
+
+    @TearDown
+    public void tearDown() {
+        VirtualTimeScheduler.reset();
+    }
+
+    @Benchmark
+    public List<InsuranceQuote> getQuotesFromAllProviders() {
+        List<InsuranceQuote> received = new ArrayList<>(providerCount * quotesPerProvider);
+        service.getQuotesFromAllProviders().subscribe(received::add);
+        scheduler.advanceTimeBy(DRAIN_TIME);
+        if (received.size() != providerCount * quotesPerProvider) {
+            throw new IllegalStateException("Expected " + providerCount * quotesPerProvider
+                    + " quotes but received " + received.size());
+        }
+        return received;
+    }
+
+    /**
+     * Repository stub answering the provider page reads from memory, standing in for the provider lookups
+     */
+    private static InsuranceQuoteRepository stubRepository(Map<String, List<QuoteView>> quotesByProvider) {
+        return (InsuranceQuoteRepository) Proxy.newProxyInstance(
+                InsuranceQuoteRepository.class.getClassLoader(),
+                new Class<?>[] {InsuranceQuoteRepository.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("findProviderPageAfter")) {
+                        long afterId = (Long) args[0];
+                        int limit = ((Pageable) args[2]).getPageSize();
+                        return quotesByProvider.getOrDefault((String) args[1], Collections.emptyList()).stream()
+                                .filter(quote -> quote.id() > afterId)
+                                .limit(limit)
+                                .toList();
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
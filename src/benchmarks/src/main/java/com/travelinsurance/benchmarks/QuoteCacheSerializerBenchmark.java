@@ -0,0 +1,101 @@
+package com.travelinsurance.benchmarks;
+
+import com.insurance.backend.cache.InsuranceQuoteSerializer;
+import com.insurance.backend.model.InsuranceQuote;
+import org.ehcache.Cache;
+import org.ehcache.CacheManager;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.CacheManagerBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.config.units.MemoryUnit;
+import org.ehcache.impl.serialization.PlainJavaSerializer;
+import org.ehcache.spi.serialization.Serializer;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads from an off-heap-only Ehcache cache of quotes, so every get deserializes, with Java serialization
+ * and with InsuranceQuoteSerializer. Setup also prints how many quotes each form fits into 1 MB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuoteCacheSerializerBenchmark {
+    private static final int KEYS = 1000;
+
+    @Param({"java", "compact"})
+    private String serializer;
+
+    private CacheManager cacheManager;
+    private Cache<Long, InsuranceQuote> cache;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        cacheManager = CacheManagerBuilder.newCacheManagerBuilder().build(true);
+        cache = offHeapCache("quotes", 16);
+        for (long key = 0; key < KEYS; key++) {
+            cache.put(key, quote(key));
+        }
+
+        Cache<Long, InsuranceQuote> oneMegabyte = offHeapCache("capacity", 1);
+        for (long key = 0; key < 100_000; key++) {
+            oneMegabyte.put(key, quote(key));
+        }
+        // Off-heap evicts older entries to make room, so count what survived the fill
+        long stored = 0;
+        for (long key = 0; key < 100_000; key++) {
+            if (oneMegabyte.containsKey(key)) {
+                stored++;
+            }
+        }
+        ClassLoader loader = getClass().getClassLoader();
+        int bytes = newSerializer(loader).serialize(quote(1)).remaining();
+        System.out.printf("%n%s: %d bytes per quote, %d quotes in 1 MB off-heap%n", serializer, bytes, stored);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cacheManager.close();
+    }
+
+    @Benchmark
+    public InsuranceQuote get() {
+        return cache.get(next++ % KEYS);
+    }
+
+    private Cache<Long, InsuranceQuote> offHeapCache(String alias, int megabytes) {
+        return cacheManager.createCache(alias, CacheConfigurationBuilder
+                .newCacheConfigurationBuilder(Long.class, InsuranceQuote.class,
+                        ResourcePoolsBuilder.newResourcePoolsBuilder().offheap(megabytes, MemoryUnit.MB))
+                .withValueSerializer(newSerializer(getClass().getClassLoader())));
+    }
+
+    private Serializer<InsuranceQuote> newSerializer(ClassLoader loader) {
+        return "compact".equals(serializer)
+                ? new InsuranceQuoteSerializer(loader)
+                : new PlainJavaSerializer<>(loader);
+    }
+
+    private static InsuranceQuote quote(long id) {
+        LocalDateTime now = LocalDateTime.of(2024, 6, 1, 12, 0);
+        InsuranceQuote quote = new InsuranceQuote();
+        quote.setId(id);
+        quote.setProviderId("provider" + (id % 3));
+        quote.setQuoteReference("Q-" + id);
+        quote.setPremium(BigDecimal.valueOf(10_000 + id, 2));
+        quote.setCoverageType("Worldwide");
+        quote.setValidUntil(now.plusDays(1));
+        quote.setCreatedAt(now);
+        quote.setUpdatedAt(now);
+        quote.setStatus(InsuranceQuote.QuoteStatus.PENDING);
+        quote.setVersion(0L);
+        return quote;
+    }
+}
@@ -0,0 +1,39 @@
+package com.travelinsurance.benchmarks;
+
+import com.travelinsurance.PlanCatalog;
+import com.travelinsurance.QuotePricing;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GetQuotesFunction pricing loop over catalogs from 10 to 10k plans
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuotePricingBenchmark {
+
+    @Param({"10", "100", "1000", "10000"})
+    private int catalogSize;
+
+    @Param({"Single Trip", "Annual Multi-Trips"})
+    private String tripType;
+
+    private PlanCatalog catalog;
+
+    @Setup
+    public void setUp() {
+        catalog = SampleCatalogs.create(catalogSize);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> calculatePlans() {
+        return QuotePricing.calculatePlans(catalog, "Worldwide", tripType, "Family", 14, 3);
+    }
+}
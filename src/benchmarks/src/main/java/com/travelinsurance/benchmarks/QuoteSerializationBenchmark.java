@@ -0,0 +1,78 @@
+package com.travelinsurance.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.insurance.backend.model.InsuranceQuote;
+import com.travelinsurance.QuotePricing;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of quote responses: the functions' org.json body and the gateway's Jackson body
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuoteSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int quoteCount;
+
+    private List<Map<String, Object>> pricedPlans;
+    private List<InsuranceQuote> gatewayQuotes;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        pricedPlans = QuotePricing.calculatePlans(SampleCatalogs.create(quoteCount),
+                "Worldwide", "Single Trip", "Individual", 7, 1);
+
+        gatewayQuotes = new ArrayList<>(quoteCount);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < quoteCount; i++) {
+            InsuranceQuote quote = new InsuranceQuote();
+            quote.setId((long) i);
+            quote.setProviderId("provider" + (i % 3));
+            quote.setQuoteReference("Q-" + i);
+            quote.setPremium(BigDecimal.valueOf(100 + i, 2));
+            quote.setCoverageType("Worldwide");
+            quote.setValidUntil(now.plusDays(1));
+            quote.setCreatedAt(now);
+            quote.setUpdatedAt(now);
+            quote.setStatus(InsuranceQuote.QuoteStatus.PENDING);
+            gatewayQuotes.add(quote);
+        }
+
+        // Same settings Spring Boot applies to the gateway's codecs
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    /**
+     * Response body built the way GetQuotesFunction builds it
+     */
+    @Benchmark
+    public String functionsQuotesJson() {
+        JSONArray resultArray = new JSONArray();
+        for (Map<String, Object> plan : pricedPlans) {
+            resultArray.put(new JSONObject(plan));
+        }
+        return resultArray.toString();
+    }
+
+    @Benchmark
+    public String gatewayQuotesJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(gatewayQuotes);
+    }
+}
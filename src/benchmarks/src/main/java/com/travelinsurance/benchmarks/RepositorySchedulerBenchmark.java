@@ -0,0 +1,64 @@
+package com.travelinsurance.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of concurrent blocking repository calls, each sleeping for the simulated database latency,
+ * on the two schedulers RepositorySchedulerConfig can select. Bounded-elastic finishes a burst in
+ * roughly (calls / threads) x latency; virtual threads in roughly one latency, whatever the burst size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositorySchedulerBenchmark {
+
+    @Param({"bounded-elastic", "virtual"})
+    private String scheduler;
+
+    @Param({"100", "1000", "5000"})
+    private int concurrentCalls;
+
+    @Param({"2", "20"})
+    private int dbLatencyMillis;
+
+    private Scheduler repositoryScheduler;
+
+    @Setup
+    public void setUp() {
+        repositoryScheduler = "virtual".equals(scheduler)
+                ? Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "repository-virtual")
+                : Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "repository-elastic");
+    }
+
+    @TearDown
+    public void tearDown() {
+        repositoryScheduler.dispose();
+    }
+
+    @Benchmark
+    public Long burst() {
+        return Flux.range(0, concurrentCalls)
+                .flatMap(i -> Mono.fromCallable(this::blockingQuery).subscribeOn(repositoryScheduler), concurrentCalls)
+                .count()
+                .block();
+    }
+
+    /**
+     * Stands in for a JPA call: the thread is blocked for the whole round-trip
+     */
+    private int blockingQuery() throws InterruptedException {
+        Thread.sleep(dbLatencyMillis);
+        return dbLatencyMillis;
+    }
+}
@@ -0,0 +1,54 @@
+package com.travelinsurance.benchmarks;
+
+import com.travelinsurance.PlanCatalog;
+
+import java.util.*;
+
+/**
+ * Synthetic plan catalogs shaped like the rows PlanCatalog loads from MySQL
+ */
+final class SampleCatalogs {
+    private static final int BENEFITS_PER_PLAN = 6;
+    private static final String[] PROVIDERS = {"SafeTravel", "GlobeCover", "JourneyShield", "WanderSure"};
+
+    private SampleCatalogs() {
+    }
+
+    static PlanCatalog create(int planCount) {
+        Random random = new Random(42);
+        List<Map<String, Object>> plans = new ArrayList<>(planCount);
+        Map<String, List<Map<String, Object>>> benefitsByPlanId = new HashMap<>();
+
+        for (int i = 0; i < planCount; i++) {
+            String planId = "plan-" + i;
+
+            Map<String, Object> plan = new HashMap<>();
+            plan.put("id", planId);
+            plan.put("name", "Travel Plan " + i);
+            plan.put("provider", PROVIDERS[i % PROVIDERS.length]);
+            plan.put("base_price", 20 + random.nextInt(200) + random.nextDouble());
+            plan.put("coverage_limit", "$" + (50 + random.nextInt(450)) + ",000");
+            plan.put("rating", 3 + random.nextInt(20) / 10.0);
+            plan.put("terms", "Standard terms and conditions apply to plan " + i);
+            plan.put("badge", i % 5 == 0 ? "Best Value" : null);
+            plan.put("logo_url", "https://example.com/logos/" + i + ".png");
+            plan.put("exclusions", Arrays.asList("Pre-existing conditions", "Extreme sports"));
+            plan.put("pros", Arrays.asList("24/7 assistance", "Cancellation cover"));
+            plan.put("cons", Collections.singletonList("Higher excess"));
+            plans.add(Collections.unmodifiableMap(plan));
+
+            List<Map<String, Object>> benefits = new ArrayList<>(BENEFITS_PER_PLAN);
+            for (int b = 0; b < BENEFITS_PER_PLAN; b++) {
+                Map<String, Object> benefit = new HashMap<>();
+                benefit.put("name", "Benefit " + b);
+                benefit.put("description", "Covers expenses for benefit " + b);
+                benefit.put("limit", "$" + (b + 1) * 10 + ",000");
+                benefit.put("isHighlighted", b < 2);
+                benefits.add(Collections.unmodifiableMap(benefit));
+            }
+            benefitsByPlanId.put(planId, benefits);
+        }
+
+        return PlanCatalog.of(plans, benefitsByPlanId);
+    }
+}
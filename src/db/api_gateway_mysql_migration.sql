@@ -0,0 +1,110 @@
+
+-- Create insurance_quotes table for the api-gateway (matches the InsuranceQuote entity)
+CREATE TABLE IF NOT EXISTS insurance_quotes (
+    id BIGINT PRIMARY KEY,
+    provider_id VARCHAR(255),
+    quote_reference VARCHAR(255),
+    premium DECIMAL(38, 2),
+    coverage_type VARCHAR(255),
+    valid_until DATETIME(6),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    status VARCHAR(20),
+    version BIGINT NOT NULL DEFAULT 0,
+    CONSTRAINT uk_insurance_quotes_quote_reference UNIQUE (quote_reference)
+);
+
+-- Bring a table created before quote_reference and version existed up to date. CREATE TABLE IF NOT EXISTS
+-- leaves an existing table alone, so each step runs only when information_schema says it is still needed.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+                 WHERE table_schema = DATABASE() AND table_name = 'insurance_quotes'
+                   AND column_name = 'quote_reference') = 0,
+               'ALTER TABLE insurance_quotes ADD COLUMN quote_reference VARCHAR(255)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+-- Existing rows start at version 0
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+                 WHERE table_schema = DATABASE() AND table_name = 'insurance_quotes'
+                   AND column_name = 'version') = 0,
+               'ALTER TABLE insurance_quotes ADD COLUMN version BIGINT NOT NULL DEFAULT 0', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+-- An earlier version of this script created version as nullable. The bulk updates' version + 1 leaves NULL
+-- as NULL, and Hibernate takes a NULL version for a transient entity, so backfill and then forbid it.
+UPDATE insurance_quotes SET version = 0 WHERE version IS NULL;
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.columns
+                 WHERE table_schema = DATABASE() AND table_name = 'insurance_quotes'
+                   AND column_name = 'version' AND is_nullable = 'YES') > 0,
+               'ALTER TABLE insurance_quotes MODIFY COLUMN version BIGINT NOT NULL DEFAULT 0', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+-- Ingestion upserts by quote_reference. Fails if existing rows already share a reference; merge those first.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.table_constraints
+                 WHERE table_schema = DATABASE() AND table_name = 'insurance_quotes'
+                   AND constraint_name = 'uk_insurance_quotes_quote_reference') = 0,
+               'ALTER TABLE insurance_quotes ADD CONSTRAINT uk_insurance_quotes_quote_reference UNIQUE (quote_reference)',
+               'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Id source for insurance_quotes; MySQL has no sequences, so Hibernate keeps the next value in a table
+CREATE TABLE IF NOT EXISTS insurance_quote_seq (
+    next_val BIGINT
+);
+INSERT INTO insurance_quote_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 1 FROM insurance_quotes
+WHERE NOT EXISTS (SELECT 1 FROM insurance_quote_seq);
+
+-- Indexes for the provider and status lookups and the expiry job.
+-- MySQL has no CREATE INDEX IF NOT EXISTS, so each index is created only when information_schema lacks it,
+-- keeping the script safe to re-run like the CREATE TABLE IF NOT EXISTS statements.
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'insurance_quotes'
+                   AND index_name = 'idx_insurance_quotes_provider_status') = 0,
+               'CREATE INDEX idx_insurance_quotes_provider_status ON insurance_quotes (provider_id, status)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'insurance_quotes'
+                   AND index_name = 'idx_insurance_quotes_status_valid_until') = 0,
+               'CREATE INDEX idx_insurance_quotes_status_valid_until ON insurance_quotes (status, valid_until)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Create insurance_quotes_archive table for expired and rejected quotes moved out by the archival job.
+-- A separate table rather than a partition: MySQL partitioning would need status in every unique key.
+CREATE TABLE IF NOT EXISTS insurance_quotes_archive (
+    id BIGINT PRIMARY KEY,
+    provider_id VARCHAR(255),
+    quote_reference VARCHAR(255),
+    premium DECIMAL(38, 2),
+    coverage_type VARCHAR(255),
+    valid_until DATETIME(6),
+    created_at DATETIME(6),
+    updated_at DATETIME(6),
+    status VARCHAR(20),
+    version BIGINT,
+    archived_at DATETIME(6)
+);
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.statistics
+                 WHERE table_schema = DATABASE() AND table_name = 'insurance_quotes_archive'
+                   AND index_name = 'idx_insurance_quotes_archive_provider') = 0,
+               'CREATE INDEX idx_insurance_quotes_archive_provider ON insurance_quotes_archive (provider_id)', 'DO 0');
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Create scheduler_leases table: which gateway instance runs each cluster-wide scheduled job, and until when
+CREATE TABLE IF NOT EXISTS scheduler_leases (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_by VARCHAR(255),
+    locked_at DATETIME(6),
+    locked_until DATETIME(6)
+);
@@ -0,0 +1,17 @@
+-- Forward migration for content-addressed document storage; run after mysql_migration.sql
+
+-- Create document_blobs table for content-addressed, reference-counted document storage
+CREATE TABLE IF NOT EXISTS document_blobs (
+    content_hash CHAR(64) PRIMARY KEY,
+    file_path VARCHAR(255) NOT NULL,
+    file_size INT NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    ref_count INT NOT NULL DEFAULT 1,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Link each upload to its blob; SAS uploads keep a NULL hash
+ALTER TABLE document_uploads
+    ADD COLUMN content_hash CHAR(64) AFTER file_size,
+    ADD CONSTRAINT fk_document_uploads_content_hash
+        FOREIGN KEY (content_hash) REFERENCES document_blobs(content_hash);
@@ -0,0 +1,15 @@
+-- Forward migration for direct-to-storage uploads; run after mysql_document_blobs_migration.sql
+
+-- Create document_upload_sessions table recording who each upload URL was issued to.
+-- A row is deleted when its upload is completed. Issuing upload URLs purges rows well past expires_at,
+-- together with any blob uploaded for them.
+CREATE TABLE IF NOT EXISTS document_upload_sessions (
+    blob_path VARCHAR(255) PRIMARY KEY,
+    user_id VARCHAR(36) NOT NULL,
+    traveler_id VARCHAR(36) NOT NULL,
+    document_type VARCHAR(50) NOT NULL,
+    original_filename VARCHAR(255) NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_document_upload_sessions_expires_at (expires_at)
+);
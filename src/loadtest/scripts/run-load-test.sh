@@ -0,0 +1,15 @@
+#!/usr/bin/env bash
+# Runs the load test against the in-process api-gateway and function handlers.
+#
+# Usage: scripts/run-load-test.sh [--option=value ...]
+# e.g.   scripts/run-load-test.sh --target=gateway --duration=120s --concurrency=64 --provider-latency=150ms
+# Options are listed in LoadTestOptions. A JSON report is written to results/ unless --out is given.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+mvn -B -q compile dependency:build-classpath -Dmdep.outputFile=target/classpath.txt
+mkdir -p results
+
+exec java -Xms1g -Xmx1g -cp "target/classes:$(cat target/classpath.txt)" \
+    com.travelinsurance.loadtest.LoadTest \
+    --out="results/loadtest-$(date -u +%Y%m%dT%H%M%SZ).json" "$@"
@@ -0,0 +1,211 @@
+package com.travelinsurance.loadtest;
+
+import com.microsoft.azure.functions.HttpMethod;
+import com.microsoft.azure.functions.HttpResponseMessage;
+import com.travelinsurance.GetPlanDetailsFunction;
+import com.travelinsurance.GetQuotesFunction;
+import com.travelinsurance.PurchasePlanFunction;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The function handlers invoked in-process against an H2 database in MySQL mode.
+ * Database reads its settings from system properties before app settings, so pointing
+ * MYSQL_CONNECTION_STRING at H2 here routes the handlers' pool there.
+ */
+final class FunctionsTarget implements Target {
+    private static final String JDBC_URL =
+            "jdbc:h2:mem:loadtest_functions;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    private static final String[] COVERAGE_TYPES = {"Worldwide", "Schengen", "Asia"};
+    private static final String[] TRIP_TYPES = {"Single Trip", "Single Trip", "Single Trip", "Annual Multi-Trips"};
+    private static final String[] COVER_TYPES = {"Individual", "Individual", "Family", "Group"};
+    private static final String[] PAYMENT_METHODS = {"card", "paypal"};
+
+    private final GetQuotesFunction getQuotes = new GetQuotesFunction();
+    private final GetPlanDetailsFunction getPlanDetails = new GetPlanDetailsFunction();
+    private final PurchasePlanFunction purchasePlan = new PurchasePlanFunction();
+    private final List<String> planIds;
+    private final Connection keepAlive;
+
+    FunctionsTarget(LoadTestOptions options) throws SQLException, IOException {
+        System.setProperty("MYSQL_CONNECTION_STRING", JDBC_URL);
+        System.setProperty("MYSQL_USER", "sa");
+        System.setProperty("MYSQL_PASSWORD", "");
+        System.setProperty("MYSQL_POOL_SIZE", String.valueOf(Math.max(5, options.concurrency)));
+        // Per-invocation metric log lines would dominate the measurements
+        System.setProperty("METRICS_EXPORTER", "none");
+
+        keepAlive = DriverManager.getConnection(JDBC_URL, "sa", "");
+        runScript(keepAlive, new String(Files.readAllBytes(options.schema), StandardCharsets.UTF_8));
+        addPlans(keepAlive, options.extraPlans);
+        planIds = loadPlanIds(keepAlive);
+    }
+
+    @Override
+    public String name() {
+        return "functions";
+    }
+
+    @Override
+    public Map<String, Operation> operations() {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        operations.put("quote", () -> isOk(getQuotes.run(
+                new LocalHttpRequest(HttpMethod.POST, "quotes", quoteRequest().toString()),
+                new LocalExecutionContext("getQuotes"))));
+        operations.put("plan", () -> {
+            String planId = planIds.get(ThreadLocalRandom.current().nextInt(planIds.size()));
+            return isOk(getPlanDetails.run(
+                    new LocalHttpRequest(HttpMethod.GET, "plans/" + planId, null),
+                    planId, new LocalExecutionContext("getPlanDetails")));
+        });
+        operations.put("purchase", () -> isOk(purchasePlan.run(
+                new LocalHttpRequest(HttpMethod.POST, "purchase", purchaseRequest().toString()),
+                new LocalExecutionContext("purchasePlan"))));
+        return operations;
+    }
+
+    private static boolean isOk(HttpResponseMessage response) {
+        return response.getStatusCode() == 200;
+    }
+
+    private JSONObject quoteRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate start = LocalDate.now().plusDays(7 + random.nextInt(120));
+        String tripType = pick(TRIP_TYPES);
+        LocalDate end = tripType.equals("Single Trip") ? start.plusDays(2 + random.nextInt(28)) : start.plusYears(1);
+
+        String coverType = pick(COVER_TYPES);
+        int travelers = coverType.equals("Individual") ? 1 : 2 + random.nextInt(4);
+        JSONArray travelersJson = new JSONArray();
+        for (int i = 0; i < travelers; i++) {
+            travelersJson.put(new JSONObject().put("age", 18 + random.nextInt(60)));
+        }
+
+        return new JSONObject()
+                .put("coverageType", pick(COVERAGE_TYPES))
+                .put("tripType", tripType)
+                .put("startDate", start.toString())
+                .put("endDate", end.toString())
+                .put("coverType", coverType)
+                .put("travelers", travelersJson);
+    }
+
+    private JSONObject purchaseRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        JSONObject quote = quoteRequest();
+
+        JSONArray travelers = new JSONArray();
+        for (int i = 0; i < quote.getJSONArray("travelers").length(); i++) {
+            travelers.put(new JSONObject()
+                    .put("firstName", "Load")
+                    .put("lastName", "Tester" + i)
+                    .put("dateOfBirth", LocalDate.of(1960 + random.nextInt(40), 1 + random.nextInt(12), 1).toString())
+                    .put("email", "load.tester" + i + "@example.com")
+                    .put("passport", new JSONObject()
+                            .put("number", "P" + random.nextInt(10_000_000))
+                            .put("issueDate", "2020-01-01")
+                            .put("expiryDate", "2030-01-01")
+                            .put("nationality", "US")));
+        }
+
+        JSONObject travelDetails = new JSONObject()
+                .put("coverageType", quote.getString("coverageType"))
+                .put("originCountry", "United States")
+                .put("destinationCountry", "France")
+                .put("tripType", quote.getString("tripType"))
+                .put("startDate", quote.getString("startDate"))
+                .put("endDate", quote.getString("endDate"))
+                .put("coverType", quote.getString("coverType"))
+                .put("travelers", travelers);
+
+        return new JSONObject()
+                .put("userId", UUID.randomUUID().toString())
+                .put("planId", planIds.get(random.nextInt(planIds.size())))
+                .put("travelDetails", travelDetails)
+                .put("price", 50 + random.nextInt(500))
+                .put("paymentMethod", pick(PAYMENT_METHODS));
+    }
+
+    private static String pick(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    /**
+     * Run a SQL script statement by statement, skipping comment lines
+     */
+    private static void runScript(Connection conn, String script) throws SQLException {
+        StringBuilder sql = new StringBuilder();
+        for (String line : script.split("\n")) {
+            if (!line.trim().startsWith("--")) {
+                sql.append(line).append('\n');
+            }
+        }
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : sql.toString().split(";")) {
+                if (!statement.trim().isEmpty()) {
+                    stmt.execute(statement);
+                }
+            }
+        }
+    }
+
+    private static void addPlans(Connection conn, int count) throws SQLException {
+        String planSql = "INSERT INTO insurance_plans (id, name, provider, base_price, coverage_limit, rating, terms, is_active) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, TRUE)";
+        String benefitSql = "INSERT INTO insurance_benefits (id, plan_id, name, description, benefit_limit, is_highlighted) " +
+                "VALUES (?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement plan = conn.prepareStatement(planSql);
+             PreparedStatement benefit = conn.prepareStatement(benefitSql)) {
+            for (int i = 0; i < count; i++) {
+                String planId = UUID.randomUUID().toString();
+                plan.setString(1, planId);
+                plan.setString(2, "Load Test Plan " + i);
+                plan.setString(3, "LoadTest Insurance");
+                plan.setDouble(4, 30 + i % 250);
+                plan.setString(5, "$250,000");
+                plan.setDouble(6, 4.0);
+                plan.setString(7, "Synthetic plan for load testing");
+                plan.addBatch();
+                for (int b = 0; b < 4; b++) {
+                    benefit.setString(1, UUID.randomUUID().toString());
+                    benefit.setString(2, planId);
+                    benefit.setString(3, "Benefit " + b);
+                    benefit.setString(4, "Synthetic benefit");
+                    benefit.setString(5, "$10,000");
+                    benefit.setBoolean(6, b == 0);
+                    benefit.addBatch();
+                }
+            }
+            plan.executeBatch();
+            benefit.executeBatch();
+        }
+    }
+
+    private static List<String> loadPlanIds(Connection conn) throws SQLException {
+        List<String> ids = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM insurance_plans WHERE is_active = TRUE")) {
+            while (rs.next()) {
+                ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void close() {
+        try {
+            keepAlive.close();
+        } catch (SQLException e) {
+            // In-memory database; nothing to clean up
+        }
+    }
+}
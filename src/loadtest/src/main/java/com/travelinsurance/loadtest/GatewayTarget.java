@@ -0,0 +1,141 @@
+package com.travelinsurance.loadtest;
+
+import com.insurance.backend.TravelAApplication;
+import com.insurance.backend.model.InsuranceQuote;
+import com.insurance.backend.repository.InsuranceQuoteRepository;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The api-gateway started in-process on a random port, with its default embedded H2 database
+ * and every provider pointed at a simulated endpoint
+ */
+final class GatewayTarget implements Target {
+    private static final int SEEDED_QUOTES = 1_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final List<SimulatedProvider> providers = new ArrayList<>();
+    private final List<String> providerIds = new ArrayList<>();
+    private final List<Long> quoteIds = new ArrayList<>();
+    private final ConfigurableApplicationContext context;
+    private final HttpClient client;
+    private final String baseUrl;
+
+    GatewayTarget(LoadTestOptions options) throws IOException {
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--server.port=0",
+                "--spring.rsocket.server.port=0",
+                "--logging.level.root=WARN",
+                // A failing provider is logged per request; that is expected under an error profile
+                "--logging.level.com.insurance.backend.service.InsuranceProviderClient=ERROR",
+                "--management.endpoints.enabled-by-default=false",
+                // The load generator is a single client by design; per-client limits would only measure the limiter
+                "--insurance.admission.enabled=false"));
+
+        for (int i = 0; i < options.providers; i++) {
+            String providerId = "provider" + (char) ('A' + i);
+            SimulatedProvider provider = new SimulatedProvider(providerId, options.providerLatency,
+                    options.providerJitter, options.providerErrorRate, options.providerHangRate);
+            providers.add(provider);
+            providerIds.add(providerId);
+
+            String prefix = "--insurance.providers." + providerId + ".";
+            args.add(prefix + "enabled=true");
+            args.add(prefix + "fetchFromDb=false");
+            args.add(prefix + "apiUrl=" + provider.getUrl());
+            args.add(prefix + "apiKey=loadtest");
+            args.add(prefix + "timeout=" + options.providerTimeout.toMillis() + "ms");
+        }
+
+        SpringApplication application = new SpringApplication(TravelAApplication.class);
+        application.setBannerMode(Banner.Mode.OFF);
+        try {
+            context = application.run(args.toArray(new String[0]));
+        } catch (RuntimeException e) {
+            // The providers' server threads would otherwise keep the JVM alive
+            providers.forEach(SimulatedProvider::close);
+            throw e;
+        }
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://127.0.0.1:" + port + "/api/quotes";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        seedQuotes(context.getBean(InsuranceQuoteRepository.class));
+    }
+
+    @Override
+    public String name() {
+        return "gateway";
+    }
+
+    @Override
+    public Map<String, Operation> operations() {
+        Map<String, Operation> operations = new LinkedHashMap<>();
+        operations.put("quote", () -> {
+            String providerId = providerIds.get(ThreadLocalRandom.current().nextInt(providerIds.size()));
+            return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + providerId)).GET());
+        });
+        operations.put("statistics", () -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/statistics")).GET()));
+        operations.put("select", () -> {
+            long quoteId = quoteIds.get(ThreadLocalRandom.current().nextInt(quoteIds.size()));
+            int status = status(HttpRequest.newBuilder(URI.create(baseUrl + "/" + quoteId + "/select"))
+                    .POST(HttpRequest.BodyPublishers.noBody()));
+            // Seeded quotes are picked at random, so most have been selected already
+            return status == 204 || status == 409;
+        });
+        return operations;
+    }
+
+    private boolean send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return status(request) == 200;
+    }
+
+    private int status(HttpRequest.Builder request) throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request.timeout(REQUEST_TIMEOUT).build(),
+                HttpResponse.BodyHandlers.discarding());
+        return response.statusCode();
+    }
+
+    private void seedQuotes(InsuranceQuoteRepository repository) {
+        List<InsuranceQuote> quotes = new ArrayList<>(SEEDED_QUOTES);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SEEDED_QUOTES; i++) {
+            InsuranceQuote quote = new InsuranceQuote();
+            quote.setProviderId(providerIds.get(i % providerIds.size()));
+            quote.setQuoteReference("SEED-" + i);
+            quote.setPremium(BigDecimal.valueOf(40 + random.nextInt(400)));
+            quote.setCoverageType(random.nextBoolean() ? "Worldwide" : "Schengen");
+            quote.setValidUntil(LocalDateTime.now().plusDays(1 + random.nextInt(30)));
+            quote.setStatus(InsuranceQuote.QuoteStatus.PENDING);
+            quotes.add(quote);
+        }
+        for (InsuranceQuote saved : repository.saveAll(quotes)) {
+            quoteIds.add(saved.getId());
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        for (SimulatedProvider provider : providers) {
+            provider.close();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.travelinsurance.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a target with a weighted operation mix from a fixed number of worker threads.
+ *
+ * Without a rate each worker sends its next request as soon as the previous one returns (closed loop).
+ * With a rate, requests are scheduled at fixed intervals and latency is measured from the scheduled
+ * start, so a stalled server shows up in the percentiles instead of silently lowering the request rate.
+ */
+final class LoadRunner {
+    private final Target target;
+    private final String[] names;
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final int concurrency;
+    private final double rate;
+
+    LoadRunner(Target target, Map<String, Integer> mix, int concurrency, double rate) {
+        this.target = target;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.names = new String[mix.size()];
+        this.operations = new Operation[mix.size()];
+        this.cumulativeWeights = new int[mix.size()];
+
+        int i = 0;
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : mix.entrySet()) {
+            Operation operation = target.operations().get(entry.getKey());
+            if (operation == null) {
+                throw new IllegalArgumentException("Unknown " + target.name() + " operation " + entry.getKey()
+                        + "; expected one of " + target.operations().keySet());
+            }
+            total += entry.getValue();
+            names[i] = entry.getKey();
+            operations[i] = operation;
+            cumulativeWeights[i] = total;
+            i++;
+        }
+    }
+
+    RunResult run(Duration duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        long intervalNanos = rate > 0 ? (long) (concurrency * 1_000_000_000L / rate) : 0;
+
+        List<Worker> workers = new ArrayList<>(concurrency);
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int w = 0; w < concurrency; w++) {
+            // Stagger scheduled starts so paced workers do not fire in bursts
+            Worker worker = new Worker(start + w * intervalNanos / concurrency, end, intervalNanos);
+            workers.add(worker);
+            Thread thread = new Thread(() -> {
+                try {
+                    worker.run();
+                } finally {
+                    done.countDown();
+                }
+            }, target.name() + "-load-" + w);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+
+        List<OperationResult> results = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            OperationResult merged = new OperationResult(names[i]);
+            for (Worker worker : workers) {
+                merged.add(worker.results[i]);
+            }
+            results.add(merged);
+        }
+        return new RunResult(target.name(), elapsed, results);
+    }
+
+    private int pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return i;
+            }
+        }
+        return cumulativeWeights.length - 1;
+    }
+
+    private final class Worker {
+        private final OperationResult[] results = new OperationResult[names.length];
+        private final long end;
+        private final long intervalNanos;
+        private long scheduled;
+
+        private Worker(long firstStart, long end, long intervalNanos) {
+            this.scheduled = firstStart;
+            this.end = end;
+            this.intervalNanos = intervalNanos;
+            for (int i = 0; i < names.length; i++) {
+                results[i] = new OperationResult(names[i]);
+            }
+        }
+
+        private void run() {
+            while (true) {
+                long start;
+                if (intervalNanos > 0) {
+                    long now;
+                    while ((now = System.nanoTime()) < scheduled) {
+                        LockSupport.parkNanos(scheduled - now);
+                    }
+                    start = scheduled;
+                    scheduled += intervalNanos;
+                } else {
+                    start = System.nanoTime();
+                }
+                if (start >= end) {
+                    return;
+                }
+
+                int i = pick();
+                boolean success;
+                try {
+                    success = operations[i].call();
+                } catch (Exception e) {
+                    success = false;
+                }
+                results[i].record(System.nanoTime() - start, success);
+            }
+        }
+    }
+
+    /**
+     * Latency histogram and error count for one operation, in microseconds
+     */
+    static final class OperationResult {
+        final String name;
+        final Histogram latencyMicros = new Histogram(3);
+        long errors;
+
+        OperationResult(String name) {
+            this.name = name;
+        }
+
+        void record(long nanos, boolean success) {
+            latencyMicros.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos)));
+            if (!success) {
+                errors++;
+            }
+        }
+
+        void add(OperationResult other) {
+            latencyMicros.add(other.latencyMicros);
+            errors += other.errors;
+        }
+
+        long count() {
+            return latencyMicros.getTotalCount();
+        }
+    }
+
+    static final class RunResult {
+        final String target;
+        final long elapsedNanos;
+        final List<OperationResult> operations;
+
+        RunResult(String target, long elapsedNanos, List<OperationResult> operations) {
+            this.target = target;
+            this.elapsedNanos = elapsedNanos;
+            this.operations = operations;
+        }
+
+        OperationResult total() {
+            OperationResult total = new OperationResult("total");
+            for (OperationResult operation : operations) {
+                total.add(operation);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.travelinsurance.loadtest;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the quote, plan-detail and purchase mixes against the api-gateway and the function handlers
+ * and reports throughput with p50/p99/p999 latency per operation
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        List<LoadRunner.RunResult> results = new ArrayList<>();
+
+        if (options.runs("functions")) {
+            try (FunctionsTarget target = new FunctionsTarget(options)) {
+                results.add(run(target, options.functionsMix, options));
+            }
+        }
+        if (options.runs("gateway")) {
+            try (GatewayTarget target = new GatewayTarget(options)) {
+                results.add(run(target, options.gatewayMix, options));
+            }
+        }
+
+        System.out.println();
+        Report.print(results, System.out);
+        if (options.out != null) {
+            Report.writeJson(results, options, Paths.get(options.out));
+            System.out.println("Report written to " + options.out);
+        }
+        System.exit(0);
+    }
+
+    private static LoadRunner.RunResult run(Target target, Map<String, Integer> mix, LoadTestOptions options)
+            throws InterruptedException {
+        LoadRunner runner = new LoadRunner(target, mix, options.concurrency, options.rate);
+        if (!options.warmup.isZero()) {
+            System.out.println("Warming up " + target.name() + " for " + options.warmup.getSeconds() + "s");
+            runner.run(options.warmup);
+        }
+        System.out.println("Measuring " + target.name() + " for " + options.duration.getSeconds() + "s");
+        return runner.run(options.duration);
+    }
+}
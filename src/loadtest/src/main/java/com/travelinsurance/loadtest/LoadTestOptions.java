@@ -0,0 +1,116 @@
+package com.travelinsurance.loadtest;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings, given as --name=value arguments
+ *
+ * <pre>
+ * --target=all|gateway|functions   what to drive (default all, one after the other)
+ * --duration=60s                   measured run length per target
+ * --warmup=15s                     unmeasured run before it
+ * --concurrency=32                 worker threads
+ * --rate=0                         total requests per second; 0 runs closed-loop as fast as workers can
+ * --gateway-mix=quote:80,statistics:10,select:10
+ * --functions-mix=quote:70,plan:20,purchase:10
+ * --providers=3                    simulated quote providers behind the gateway
+ * --provider-latency=80ms          fixed part of each provider response time
+ * --provider-jitter=40ms           mean of the exponential tail added to it
+ * --provider-error-rate=0.01       share of provider calls answered with 503
+ * --provider-hang-rate=0.001       share of provider calls that never answer in time
+ * --provider-timeout=2s            gateway timeout for a provider call
+ * --schema=../db/mysql_migration.sql   schema and sample plans loaded into the functions' H2 database
+ * --extra-plans=0                  synthetic plans added to the functions' catalog
+ * --out=path.json                  write the report as JSON
+ * </pre>
+ */
+final class LoadTestOptions {
+    String target = "all";
+    Duration duration = Duration.ofSeconds(60);
+    Duration warmup = Duration.ofSeconds(15);
+    int concurrency = 32;
+    double rate = 0;
+    Map<String, Integer> gatewayMix = parseMix("quote:80,statistics:10,select:10");
+    Map<String, Integer> functionsMix = parseMix("quote:70,plan:20,purchase:10");
+    int providers = 3;
+    Duration providerLatency = Duration.ofMillis(80);
+    Duration providerJitter = Duration.ofMillis(40);
+    double providerErrorRate = 0.01;
+    double providerHangRate = 0.001;
+    Duration providerTimeout = Duration.ofSeconds(2);
+    Path schema = Paths.get("..", "db", "mysql_migration.sql");
+    int extraPlans = 0;
+    String out;
+
+    static LoadTestOptions parse(String[] args) {
+        LoadTestOptions options = new LoadTestOptions();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "target": options.target = value; break;
+                case "duration": options.duration = parseDuration(value); break;
+                case "warmup": options.warmup = parseDuration(value); break;
+                case "concurrency": options.concurrency = Integer.parseInt(value); break;
+                case "rate": options.rate = Double.parseDouble(value); break;
+                case "gateway-mix": options.gatewayMix = parseMix(value); break;
+                case "functions-mix": options.functionsMix = parseMix(value); break;
+                case "providers": options.providers = Integer.parseInt(value); break;
+                case "provider-latency": options.providerLatency = parseDuration(value); break;
+                case "provider-jitter": options.providerJitter = parseDuration(value); break;
+                case "provider-error-rate": options.providerErrorRate = Double.parseDouble(value); break;
+                case "provider-hang-rate": options.providerHangRate = Double.parseDouble(value); break;
+                case "provider-timeout": options.providerTimeout = parseDuration(value); break;
+                case "schema": options.schema = Paths.get(value); break;
+                case "extra-plans": options.extraPlans = Integer.parseInt(value); break;
+                case "out": options.out = value; break;
+                default: throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+        if (!options.target.equals("all") && !options.target.equals("gateway") && !options.target.equals("functions")) {
+            throw new IllegalArgumentException("--target must be all, gateway or functions");
+        }
+        return options;
+    }
+
+    boolean runs(String targetName) {
+        return target.equals("all") || target.equals(targetName);
+    }
+
+    /**
+     * Durations as 250ms, 30s or 5m
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        } else if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        } else if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException("Expected a duration such as 250ms, 30s or 5m but got " + value);
+    }
+
+    /**
+     * Operation weights as name:weight pairs, e.g. quote:70,plan:20,purchase:10
+     */
+    static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected name:weight but got " + entry);
+            }
+            mix.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,40 @@
+package com.travelinsurance.loadtest;
+
+import com.microsoft.azure.functions.ExecutionContext;
+
+import java.util.UUID;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Execution context for in-process invocations. Handlers log every request at INFO, which would make
+ * console output the bottleneck, so only warnings and errors are shown.
+ */
+final class LocalExecutionContext implements ExecutionContext {
+    private static final Logger LOGGER = Logger.getLogger("com.travelinsurance.loadtest.functions");
+
+    static {
+        LOGGER.setLevel(Level.WARNING);
+    }
+
+    private final String functionName;
+
+    LocalExecutionContext(String functionName) {
+        this.functionName = functionName;
+    }
+
+    @Override
+    public Logger getLogger() {
+        return LOGGER;
+    }
+
+    @Override
+    public String getInvocationId() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Override
+    public String getFunctionName() {
+        return functionName;
+    }
+}
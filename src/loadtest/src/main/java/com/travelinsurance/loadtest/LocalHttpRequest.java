@@ -0,0 +1,123 @@
+package com.travelinsurance.loadtest;
+
+import com.microsoft.azure.functions.HttpMethod;
+import com.microsoft.azure.functions.HttpRequestMessage;
+import com.microsoft.azure.functions.HttpResponseMessage;
+import com.microsoft.azure.functions.HttpStatus;
+import com.microsoft.azure.functions.HttpStatusType;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Minimal in-process stand-in for the Functions host's HTTP request and response types
+ */
+final class LocalHttpRequest implements HttpRequestMessage<Optional<String>> {
+    private final HttpMethod method;
+    private final URI uri;
+    private final String body;
+
+    LocalHttpRequest(HttpMethod method, String path, String body) {
+        this.method = method;
+        this.uri = URI.create("http://localhost:7071/api/" + path);
+        this.body = body;
+    }
+
+    @Override
+    public URI getUri() {
+        return uri;
+    }
+
+    @Override
+    public HttpMethod getHttpMethod() {
+        return method;
+    }
+
+    @Override
+    public Map<String, String> getHeaders() {
+        return Collections.singletonMap("content-type", "application/json");
+    }
+
+    @Override
+    public Map<String, String> getQueryParameters() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Optional<String> getBody() {
+        return Optional.ofNullable(body);
+    }
+
+    @Override
+    public HttpResponseMessage.Builder createResponseBuilder(HttpStatus status) {
+        return new ResponseBuilder(status);
+    }
+
+    @Override
+    public HttpResponseMessage.Builder createResponseBuilder(HttpStatusType status) {
+        return new ResponseBuilder(status);
+    }
+
+    private static final class ResponseBuilder implements HttpResponseMessage.Builder {
+        private final Map<String, String> headers = new HashMap<>();
+        private HttpStatusType status;
+        private Object body;
+
+        private ResponseBuilder(HttpStatusType status) {
+            this.status = status;
+        }
+
+        @Override
+        public HttpResponseMessage.Builder status(HttpStatusType status) {
+            this.status = status;
+            return this;
+        }
+
+        @Override
+        public HttpResponseMessage.Builder header(String key, String value) {
+            headers.put(key, value);
+            return this;
+        }
+
+        @Override
+        public HttpResponseMessage.Builder body(Object body) {
+            this.body = body;
+            return this;
+        }
+
+        @Override
+        public HttpResponseMessage build() {
+            return new Response(status, headers, body);
+        }
+    }
+
+    private static final class Response implements HttpResponseMessage {
+        private final HttpStatusType status;
+        private final Map<String, String> headers;
+        private final Object body;
+
+        private Response(HttpStatusType status, Map<String, String> headers, Object body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        @Override
+        public HttpStatusType getStatus() {
+            return status;
+        }
+
+        @Override
+        public String getHeader(String key) {
+            return headers.get(key);
+        }
+
+        @Override
+        public Object getBody() {
+            return body;
+        }
+    }
+}
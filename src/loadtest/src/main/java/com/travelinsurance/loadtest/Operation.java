@@ -0,0 +1,13 @@
+package com.travelinsurance.loadtest;
+
+/**
+ * One kind of request in a workload mix
+ */
+@FunctionalInterface
+interface Operation {
+
+    /**
+     * Send one request and return whether it succeeded
+     */
+    boolean call() throws Exception;
+}
@@ -0,0 +1,92 @@
+package com.travelinsurance.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Throughput and latency percentiles per target and operation
+ */
+final class Report {
+    private static final String ROW = "%-10s %-12s %9s %8s %10s %9s %9s %9s %9s%n";
+
+    private Report() {
+    }
+
+    static void print(List<LoadRunner.RunResult> runs, PrintStream out) {
+        out.printf(Locale.ROOT, ROW, "target", "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (LoadRunner.RunResult run : runs) {
+            for (LoadRunner.OperationResult operation : run.operations) {
+                printRow(out, run, operation);
+            }
+            printRow(out, run, run.total());
+        }
+    }
+
+    static void writeJson(List<LoadRunner.RunResult> runs, LoadTestOptions options, Path path) throws IOException {
+        JSONObject settings = new JSONObject();
+        settings.put("duration", options.duration.toString());
+        settings.put("concurrency", options.concurrency);
+        settings.put("rate", options.rate);
+        settings.put("gatewayMix", options.gatewayMix);
+        settings.put("functionsMix", options.functionsMix);
+        settings.put("providers", options.providers);
+        settings.put("providerLatency", options.providerLatency.toString());
+        settings.put("providerJitter", options.providerJitter.toString());
+        settings.put("providerErrorRate", options.providerErrorRate);
+        settings.put("providerHangRate", options.providerHangRate);
+
+        JSONArray targets = new JSONArray();
+        for (LoadRunner.RunResult run : runs) {
+            JSONArray operations = new JSONArray();
+            for (LoadRunner.OperationResult operation : run.operations) {
+                operations.put(toJson(run, operation));
+            }
+            operations.put(toJson(run, run.total()));
+            targets.put(new JSONObject().put("target", run.target).put("operations", operations));
+        }
+
+        JSONObject report = new JSONObject().put("settings", settings).put("results", targets);
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Files.write(path, report.toString(2).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void printRow(PrintStream out, LoadRunner.RunResult run, LoadRunner.OperationResult operation) {
+        Histogram latency = operation.latencyMicros;
+        out.printf(Locale.ROOT, ROW, run.target, operation.name, operation.count(), operation.errors,
+                String.format(Locale.ROOT, "%.1f", throughput(run, operation)),
+                millis(latency.getValueAtPercentile(50)), millis(latency.getValueAtPercentile(99)),
+                millis(latency.getValueAtPercentile(99.9)), millis(latency.getMaxValue()));
+    }
+
+    private static JSONObject toJson(LoadRunner.RunResult run, LoadRunner.OperationResult operation) {
+        Histogram latency = operation.latencyMicros;
+        return new JSONObject()
+                .put("operation", operation.name)
+                .put("requests", operation.count())
+                .put("errors", operation.errors)
+                .put("throughput", throughput(run, operation))
+                .put("p50Micros", latency.getValueAtPercentile(50))
+                .put("p99Micros", latency.getValueAtPercentile(99))
+                .put("p999Micros", latency.getValueAtPercentile(99.9))
+                .put("maxMicros", latency.getMaxValue());
+    }
+
+    private static double throughput(LoadRunner.RunResult run, LoadRunner.OperationResult operation) {
+        return operation.count() * 1_000_000_000.0 / run.elapsedNanos;
+    }
+
+    private static String millis(long micros) {
+        return String.format(Locale.ROOT, "%.2f", micros / 1000.0);
+    }
+}
@@ -0,0 +1,127 @@
+package com.travelinsurance.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for an external provider's quote API with a configurable latency and error profile.
+ * Each response is delayed by a fixed latency plus an exponentially distributed tail; a share of calls
+ * fail with 503 and a share never answer within any sensible timeout.
+ */
+final class SimulatedProvider implements AutoCloseable {
+    private static final long HANG_MILLIS = 60_000;
+
+    private final String providerId;
+    private final long latencyMicros;
+    private final double jitterMeanMicros;
+    private final double errorRate;
+    private final double hangRate;
+    private final HttpServer server;
+    private final ScheduledExecutorService responder;
+    private final AtomicLong requests = new AtomicLong();
+
+    SimulatedProvider(String providerId, Duration latency, Duration jitter, double errorRate, double hangRate)
+            throws IOException {
+        this.providerId = providerId;
+        this.latencyMicros = TimeUnit.NANOSECONDS.toMicros(latency.toNanos());
+        this.jitterMeanMicros = TimeUnit.NANOSECONDS.toMicros(jitter.toNanos());
+        this.errorRate = errorRate;
+        this.hangRate = hangRate;
+
+        // Responses are sent from a scheduler, so slow answers do not hold server threads
+        this.responder = Executors.newScheduledThreadPool(2, daemon(providerId + "-responder"));
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        this.server.createContext("/quotes", this::handle);
+        this.server.setExecutor(Executors.newFixedThreadPool(4, daemon(providerId + "-http")));
+        this.server.start();
+    }
+
+    String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/quotes";
+    }
+
+    long getRequestCount() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) {
+        long sequence = requests.incrementAndGet();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double roll = random.nextDouble();
+
+        long delayMicros = latencyMicros;
+        if (jitterMeanMicros > 0) {
+            delayMicros += (long) (-jitterMeanMicros * Math.log(1 - random.nextDouble()));
+        }
+
+        int status;
+        String body;
+        if (roll < hangRate) {
+            delayMicros = TimeUnit.MILLISECONDS.toMicros(HANG_MILLIS);
+            status = 504;
+            body = "";
+        } else if (roll < hangRate + errorRate) {
+            status = 503;
+            body = "{\"error\":\"provider unavailable\"}";
+        } else {
+            status = 200;
+            body = quotes(sequence, random).toString();
+        }
+
+        responder.schedule(() -> respond(exchange, status, body), delayMicros, TimeUnit.MICROSECONDS);
+    }
+
+    private JSONArray quotes(long sequence, ThreadLocalRandom random) {
+        JSONObject quote = new JSONObject();
+        quote.put("quoteReference", providerId.toUpperCase(Locale.ROOT) + "-" + sequence);
+        quote.put("premium", 40 + random.nextInt(400) + random.nextInt(100) / 100.0);
+        quote.put("coverageType", random.nextBoolean() ? "Worldwide" : "Schengen");
+        quote.put("validUntil", LocalDateTime.now().plusDays(1).withNano(0).toString());
+        quote.put("status", "PENDING");
+        return new JSONArray().put(quote);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) {
+        try {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            if (bytes.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        } catch (IOException e) {
+            // The caller gave up (e.g. timed out); nothing left to answer
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicLong count = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        responder.shutdownNow();
+    }
+}
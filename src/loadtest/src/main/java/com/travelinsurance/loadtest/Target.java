@@ -0,0 +1,16 @@
+package com.travelinsurance.loadtest;
+
+import java.util.Map;
+
+/**
+ * A system under test started locally, with the operations a workload mix can draw from
+ */
+interface Target extends AutoCloseable {
+
+    String name();
+
+    Map<String, Operation> operations();
+
+    @Override
+    void close();
+}